@@ -0,0 +1,96 @@
+package com.example.backend.lexicon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in a lexicon of 100k synthetic entries, for hits and misses, and
+ * top-10 prefix suggestions over the same headwords, and stemming of an
+ * inflected word validated against the lexicon.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LexiconBenchmark {
+
+    private static final int ENTRIES = 100_000;
+
+    private Path directory;
+    private Lexicon lexicon;
+    private HeadwordTrie trie;
+    private String[] prefixes;
+    private String[] hits;
+    private String[] misses;
+    private int next;
+
+    private static final String[] INFLECTED = { "memperkatakan", "dikatakannya", "kata-kata", "berkatalah" };
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder source = new StringBuilder(ENTRIES * 32);
+        for (int i = 0; i < ENTRIES; i++) {
+            source.append("kata").append(Integer.toString(i, 36)).append('\t')
+                    .append("词").append(i).append('\t').append("cí").append('\n');
+        }
+        source.append("kata\t话\thuà\n");
+        directory = Files.createTempDirectory("lexicon-benchmark");
+        lexicon = Lexicon.open(directory.resolve("lexicon.bin"), source.toString());
+
+        trie = new HeadwordTrie();
+        lexicon.forEach(entry -> trie.add(entry.malay(), 1 + (entry.malay().hashCode() & 1023)));
+
+        prefixes = new String[1024];
+        hits = new String[1024];
+        misses = new String[1024];
+        for (int i = 0; i < hits.length; i++) {
+            int n = (i * 7919) % ENTRIES;
+            hits[i] = "kata" + Integer.toString(n, 36);
+            misses[i] = "kata" + Integer.toString(n, 36) + "x";
+            prefixes[i] = hits[i].substring(0, 4 + i % 3);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("lexicon.bin"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Lexicon.Entry hit() {
+        return lexicon.lookup(hits[next++ & 1023]);
+    }
+
+    @Benchmark
+    public Lexicon.Entry miss() {
+        return lexicon.lookup(misses[next++ & 1023]);
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return trie.suggest(prefixes[next++ & 1023], 10);
+    }
+
+    @Benchmark
+    public String stem() {
+        return MalayStemmer.stem(INFLECTED[next++ & 3], lexicon::contains);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a typical dictionary response with the object
+ * mapper configuration Spring Boot uses for HTTP responses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private DictionaryResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        response = new DictionaryResponse("cantik", "美丽",
+                "'美丽' dalam bahasa Mandarin merujuk kepada sesuatu yang indah atau menarik dari segi penampilan. "
+                        + "Ia digunakan untuk menggambarkan keindahan fizikal seseorang, pemandangan, atau objek.",
+                "1. 她是个美丽的女孩。\n   Dia seorang gadis yang cantik.\n"
+                        + "2. 这里的风景非常美丽。\n   Pemandangan di sini sangat cantik.\n"
+                        + "3. 那朵花开得很美丽。\n   Bunga itu mekar dengan cantiknya.",
+                "měi lì", true);
+    }
+
+    @Benchmark
+    public byte[] serializeDictionaryResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.ExplanationStore;
+import com.example.backend.lexicon.Lexicon;
+import com.example.backend.lexicon.PinyinConverter;
+import com.example.backend.model.AiResponse;
+import com.example.backend.model.DictionaryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache hit paths of the translation, AI and response tiers, measured
+ * through the public service methods including their Mono wrapping.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+
+    private TranslationService translationService;
+    private DeepseekAiService deepseekAiService;
+    private DictionaryService dictionaryService;
+
+    @Setup
+    public void setUp() {
+        // The services print every lookup; keep that out of the JMH output
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        WebClient webClient = WebClient.create("http://localhost:1");
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        translationService = new TranslationService(webClient, meterRegistry);
+        enableCache(translationService);
+        translationService.initCache();
+
+        deepseekAiService = new DeepseekAiService(webClient, ExplanationStore.disabled(), meterRegistry);
+        enableCache(deepseekAiService);
+        ReflectionTestUtils.setField(deepseekAiService, "cacheMaxBytes", 64L * 1024 * 1024);
+        ReflectionTestUtils.setField(deepseekAiService, "cacheTtlHours", 24L);
+        deepseekAiService.initCache();
+
+        dictionaryService = new DictionaryService(translationService, deepseekAiService, Lexicon.empty(),
+                new SuggestionService(Lexicon.empty()), PinyinConverter.empty(), meterRegistry);
+        enableCache(dictionaryService);
+        ReflectionTestUtils.setField(dictionaryService, "responseCacheMaxBytes", 32L * 1024 * 1024);
+        ReflectionTestUtils.setField(dictionaryService, "responseCacheTtlHours", 24L);
+        dictionaryService.initCache();
+
+        AiResponse explanation = SectionParser.parse(ModelOutputCorpus.load().get("01-plain.txt"));
+        cacheOf(translationService).put(translationKey("makan", "ms", "zh"), "吃");
+        cacheOf(deepseekAiService).put("Mandarin:吃", explanation);
+        cacheOf(dictionaryService).put("makan", new DictionaryResponse("makan", "吃", explanation.getExplanation(),
+                explanation.getExamples(), explanation.getPronunciation(), explanation.isAdjective()));
+    }
+
+    @Benchmark
+    public String translationCacheHit() {
+        return translationService.translateText("makan", "ms", "zh").block();
+    }
+
+    @Benchmark
+    public AiResponse explanationCacheHit() {
+        return deepseekAiService.generateExplanation("吃", "Mandarin").block();
+    }
+
+    @Benchmark
+    public DictionaryResponse responseCacheHit() {
+        return dictionaryService.processWord("Makan ").block();
+    }
+
+    private static void enableCache(Object service) {
+        ReflectionTestUtils.setField(service, "cacheEnabled", true);
+        if (service instanceof TranslationService) {
+            ReflectionTestUtils.setField(service, "cacheMaxBytes", 16L * 1024 * 1024);
+            ReflectionTestUtils.setField(service, "cacheTtlHours", 24L);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> com.github.benmanes.caffeine.cache.Cache<K, V> cacheOf(Object service) {
+        String field = service instanceof DictionaryService ? "responseCache" : "cache";
+        return (com.github.benmanes.caffeine.cache.Cache<K, V>) ReflectionTestUtils.getField(service, field);
+    }
+
+    private static Object translationKey(String text, String source, String target) {
+        try {
+            Class<?> keyType = Class.forName(TranslationService.class.getName() + "$TranslationKey");
+            var constructor = keyType.getDeclaredConstructor(String.class, String.class, String.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(text, source, target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.ExplanationStore;
+import com.example.backend.model.AiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and cleanup of recorded model outputs, comparing the single-pass
+ * parser against the regex based one it replaced, plus prompt building.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({ "01-plain.txt", "02-think-block.txt", "03-markdown.txt", "04-crlf-reordered.txt",
+            "06-unclosed-think.txt", "08-gpt-oss-verbose.txt" })
+    public String output;
+
+    @Param({ "makan", "rumah" })
+    public String word;
+
+    private String text;
+    private DeepseekAiService service;
+
+    @Setup
+    public void setUp() {
+        text = ModelOutputCorpus.load().get(output);
+        service = new DeepseekAiService(WebClient.create(), ExplanationStore.disabled(), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public AiResponse parseGeneratedText() {
+        return service.parseGeneratedText(text);
+    }
+
+    @Benchmark
+    public AiResponse legacyParseGeneratedText() {
+        return LegacyResponseParser.parse(text);
+    }
+
+    @Benchmark
+    public String cleanUpFormatting() {
+        return SectionParser.clean(text);
+    }
+
+    @Benchmark
+    public String legacyCleanUpFormatting() {
+        return LegacyResponseParser.cleanUpFormatting(text);
+    }
+
+    @Benchmark
+    public String generatePrompt() {
+        return service.generatePrompt(word, "Mandarin");
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.AiResponse;
+import com.example.backend.model.DictionaryResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helpers for building the application's bounded caches and reporting their
+ * statistics.
+ * <p>
+ * All caches are Caffeine caches, which evict with W-TinyLFU, capped by an
+ * estimated byte weight and expired after a fixed time-to-live.
+ */
+public final class Caches {
+
+    // Rough JVM footprint of an object header plus a reference field
+    private static final int OBJECT_OVERHEAD = 16;
+    // String object plus its backing array header
+    private static final int STRING_OVERHEAD = 40;
+
+    private Caches() {
+    }
+
+    /**
+     * Builds a cache bounded by estimated retained bytes and a per-entry TTL.
+     *
+     * @param maxBytes     Upper bound for the summed entry weights
+     * @param ttl          Time after which an entry written to the cache expires
+     * @param weigher      Estimates the retained bytes of one entry
+     * @param statsCounter Counter receiving hit, miss, load and eviction events
+     */
+    public static <K, V> Cache<K, V> newBoundedCache(long maxBytes, Duration ttl, Weigher<K, V> weigher,
+            StatsCounter statsCounter) {
+        return boundedBuilder(maxBytes, ttl, weigher, statsCounter).build();
+    }
+
+    /**
+     * Builds a bounded cache that reports the entries it drops, e.g. to keep
+     * an index of its keys in step with it.
+     *
+     * @param removalListener Called asynchronously once an entry has been
+     *                        evicted, has expired, was invalidated or was
+     *                        replaced
+     */
+    public static <K, V> Cache<K, V> newBoundedCache(long maxBytes, Duration ttl, Weigher<K, V> weigher,
+            StatsCounter statsCounter, RemovalListener<K, V> removalListener) {
+        return boundedBuilder(maxBytes, ttl, weigher, statsCounter)
+                .removalListener(removalListener)
+                .build();
+    }
+
+    private static <K, V> Caffeine<K, V> boundedBuilder(long maxBytes, Duration ttl, Weigher<K, V> weigher,
+            StatsCounter statsCounter) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(weigher)
+                .expireAfterWrite(ttl)
+                .recordStats(() -> statsCounter);
+    }
+
+    /**
+     * Describes a cache for the stats endpoint
+     */
+    public static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", cache.estimatedSize());
+        description.put("hits", stats.hitCount());
+        description.put("misses", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("evictions", stats.evictionCount());
+        description.put("loads", stats.loadCount());
+        description.put("loadFailures", stats.loadFailureCount());
+        description.put("totalLoadTimeMillis", TimeUnit.NANOSECONDS.toMillis(stats.totalLoadTime()));
+        description.put("averageLoadTimeMillis", stats.averageLoadPenalty() / 1_000_000d);
+
+        cache.policy().eviction().ifPresent(eviction -> {
+            eviction.weightedSize().ifPresent(weight -> description.put("estimatedBytes", weight));
+            description.put("maxBytes", eviction.getMaximum());
+        });
+        cache.policy().expireAfterWrite()
+                .map(Policy.FixedExpiration::getExpiresAfter)
+                .ifPresent(ttl -> description.put("ttlSeconds", ttl.toSeconds()));
+        return description;
+    }
+
+    /**
+     * Estimates the retained size of a string, assuming two bytes per char
+     */
+    public static int weightOf(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2 * value.length();
+    }
+
+    public static int weightOf(String key, AiResponse response) {
+        return OBJECT_OVERHEAD + weightOf(key)
+                + weightOf(response.getExplanation())
+                + weightOf(response.getExamples())
+                + weightOf(response.getPronunciation());
+    }
+
+    public static int weightOf(String key, DictionaryResponse response) {
+        return OBJECT_OVERHEAD + weightOf(key)
+                + weightOf(response.getMalayWord())
+                + weightOf(response.getMandarinWord())
+                + weightOf(response.getExplanation())
+                + weightOf(response.getExamples())
+                + weightOf(response.getPinyin());
+    }
+}
@@ -0,0 +1,547 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.AiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, on-disk store of generated explanations that backs the
+ * in-memory AI cache and survives restarts.
+ * <p>
+ * Each record is written as {@code [length][crc32][payload]}. Writes are
+ * queued and appended in batches by a single background thread; until a
+ * record is flushed it is served from the pending map. Only keys and file
+ * offsets are kept on the heap, records are read back with positional reads.
+ * <p>
+ * At startup the log is scanned once to rebuild the offset index. A torn or
+ * corrupt tail left by a crash is truncated, and the log is compacted when
+ * most of its records have been superseded.
+ * <p>
+ * While running, the bytes of superseded and expired records are counted as
+ * dead. Once they pass the configured threshold and make up most of the file,
+ * the writer compacts the log after its next flush, dropping expired records,
+ * so neither the file nor the index grows without bound.
+ */
+public class ExplanationStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExplanationStore.class);
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 4 * 1024 * 1024;
+
+    private final Path path;
+    private final long ttlMillis;
+    private final int batchSize;
+    private final boolean fsync;
+    private final long compactDeadBytes;
+
+    private final Map<String, Long> index = new ConcurrentHashMap<>();
+    private final Map<String, AiResponse> pending = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<PendingWrite> writeQueue = new LinkedBlockingQueue<>();
+    private final ScheduledExecutorService writer;
+    private final Object flushLock = new Object();
+    // Held exclusively while compaction swaps the log and offsets, shared by reads
+    private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private final AtomicLong deadBytes = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+
+    private FileChannel channel;
+    private long recoveredRecords;
+    private long recoveryMillis;
+
+    private ExplanationStore() {
+        this.path = null;
+        this.ttlMillis = 0;
+        this.batchSize = 0;
+        this.fsync = false;
+        this.compactDeadBytes = 0;
+        this.writer = null;
+    }
+
+    /**
+     * Opens the store at the given path, recovering any existing records.
+     *
+     * @param path          Log file location; parent directories are created
+     * @param ttl           Records older than this are ignored and compacted away
+     * @param flushInterval Maximum time a write waits in the queue
+     * @param batchSize     Number of queued writes that triggers an early flush
+     * @param fsync         Whether each batch is forced to the storage device
+     * @param compactDeadBytes Dead bytes that, once they are also most of the
+     *                      file, trigger a compaction while running
+     */
+    public ExplanationStore(Path path, Duration ttl, Duration flushInterval, int batchSize, boolean fsync,
+            long compactDeadBytes) {
+        this.path = path;
+        this.ttlMillis = ttl.toMillis();
+        this.batchSize = Math.max(1, batchSize);
+        this.fsync = fsync;
+        this.compactDeadBytes = Math.max(0, compactDeadBytes);
+
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open explanation store at " + path, e);
+        }
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "explanation-store-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, flushInterval.toMillis());
+        writer.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns a store that keeps nothing, used when persistence is switched off
+     */
+    public static ExplanationStore disabled() {
+        return new ExplanationStore();
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /**
+     * Looks up a stored explanation
+     *
+     * @return The explanation, or null if it was never stored or has expired
+     */
+    public AiResponse get(String key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        AiResponse response = pending.get(key);
+        if (response != null) {
+            return response;
+        }
+        fileLock.readLock().lock();
+        try {
+            Long offset = index.get(key);
+            if (offset == null) {
+                return null;
+            }
+            StoredRecord record = readRecord(offset);
+            if (record == null || isExpired(record.writtenAt)) {
+                if (index.remove(key, offset) && record != null) {
+                    deadBytes.addAndGet(record.bytes);
+                }
+                return null;
+            }
+            reads.incrementAndGet();
+            return record.response;
+        } catch (IOException e) {
+            logger.warn("Failed to read stored explanation for '{}': {}", key, e.getMessage());
+            return null;
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Queues an explanation to be appended to the log by the background writer
+     */
+    public void put(String key, AiResponse response) {
+        if (!isEnabled()) {
+            return;
+        }
+        pending.put(key, response);
+        writeQueue.add(new PendingWrite(key, response));
+        if (writeQueue.size() >= batchSize) {
+            try {
+                writer.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; close() flushes whatever is still queued
+            }
+        }
+    }
+
+    public boolean contains(String key) {
+        return isEnabled() && (pending.containsKey(key) || index.containsKey(key));
+    }
+
+    public int size() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        int unflushed = 0;
+        for (String key : pending.keySet()) {
+            if (!index.containsKey(key)) {
+                unflushed++;
+            }
+        }
+        return index.size() + unflushed;
+    }
+
+    /**
+     * Removes every stored explanation and truncates the log
+     */
+    public void clear() {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (flushLock) {
+            writeQueue.clear();
+            pending.clear();
+            index.clear();
+            deadBytes.set(0);
+            try {
+                channel.truncate(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to truncate explanation store at " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Appends all queued writes to the log in one batch
+     */
+    public void flush() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (flushLock) {
+            List<PendingWrite> batch = new ArrayList<>();
+            writeQueue.drainTo(batch);
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            long position = channel.size();
+            long now = System.currentTimeMillis();
+            List<byte[]> records = new ArrayList<>(batch.size());
+            int totalBytes = 0;
+            for (PendingWrite write : batch) {
+                byte[] record = encodeRecord(write.key, write.response, now);
+                records.add(record);
+                totalBytes += record.length;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(totalBytes);
+            records.forEach(buffer::put);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+
+            long offset = position;
+            for (int i = 0; i < batch.size(); i++) {
+                PendingWrite write = batch.get(i);
+                Long superseded = index.put(write.key, offset);
+                if (superseded != null) {
+                    deadBytes.addAndGet(recordBytes(superseded));
+                }
+                pending.remove(write.key, write.response);
+                offset += records.get(i).length;
+            }
+            writes.addAndGet(batch.size());
+            flushes.incrementAndGet();
+            logger.debug("Flushed {} explanations ({} bytes) to {}", batch.size(), totalBytes, path);
+
+            long dead = deadBytes.get();
+            if (dead > compactDeadBytes && dead * 2 > offset) {
+                fileLock.writeLock().lock();
+                try {
+                    compact();
+                } finally {
+                    fileLock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        if (!isEnabled()) {
+            return stats;
+        }
+        stats.put("path", path.toString());
+        stats.put("size", size());
+        stats.put("pendingWrites", writeQueue.size());
+        stats.put("reads", reads.get());
+        stats.put("writes", writes.get());
+        stats.put("flushes", flushes.get());
+        stats.put("compactions", compactions.get());
+        stats.put("deadBytes", deadBytes.get());
+        stats.put("recoveredRecords", recoveredRecords);
+        stats.put("recoveryMillis", recoveryMillis);
+        try {
+            stats.put("fileBytes", channel.size());
+        } catch (IOException e) {
+            stats.put("fileBytes", -1);
+        }
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        channel.close();
+        logger.info("Explanation store closed with {} records", index.size());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            logger.error("Failed to flush explanation store to {}: {}", path, e.getMessage());
+        }
+    }
+
+    private boolean isExpired(long writtenAt) {
+        return System.currentTimeMillis() - writtenAt > ttlMillis;
+    }
+
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        long fileSize = channel.size();
+        long position = 0;
+        long records = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        Map<String, Long> writtenAt = new HashMap<>();
+        Map<String, Integer> recordBytes = new HashMap<>();
+
+        while (position + HEADER_BYTES <= fileSize) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES || position + HEADER_BYTES + length > fileSize) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + HEADER_BYTES);
+            if (checksum(payload.array()) != crc) {
+                break;
+            }
+
+            payload.flip();
+            payload.get(); // format version
+            long recordTime = payload.getLong();
+            String key = readString(payload);
+            index.put(key, position);
+            writtenAt.put(key, recordTime);
+            recordBytes.put(key, HEADER_BYTES + length);
+            records++;
+            position += HEADER_BYTES + length;
+        }
+
+        if (position < fileSize) {
+            logger.warn("Truncating {} bytes of torn or corrupt data at the end of {}", fileSize - position, path);
+            channel.truncate(position);
+        }
+
+        writtenAt.forEach((key, time) -> {
+            if (isExpired(time)) {
+                index.remove(key);
+            }
+        });
+        recoveredRecords = index.size();
+
+        // Rewrite the log once most of it is superseded or expired records
+        if (records > 0 && index.size() * 2 < records) {
+            compact();
+        } else {
+            long liveBytes = 0;
+            for (String key : index.keySet()) {
+                liveBytes += recordBytes.get(key);
+            }
+            deadBytes.set(position - liveBytes);
+        }
+
+        recoveryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Recovered {} explanations from {} ({} records scanned) in {} ms",
+                index.size(), path, records, recoveryMillis);
+    }
+
+    private void compact() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Map<String, Long> compactedIndex = new HashMap<>();
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (Map.Entry<String, Long> entry : index.entrySet()) {
+                StoredRecord record = readRecord(entry.getValue());
+                if (record == null || isExpired(record.writtenAt)) {
+                    continue;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(encodeRecord(entry.getKey(), record.response, record.writtenAt));
+                compactedIndex.put(entry.getKey(), position);
+                while (buffer.hasRemaining()) {
+                    position += out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        index.putAll(compactedIndex);
+        deadBytes.set(0);
+        compactions.incrementAndGet();
+        logger.info("Compacted {} to {} live records", path, compactedIndex.size());
+    }
+
+    private StoredRecord readRecord(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, offset);
+        header.flip();
+        int length = header.getInt();
+        int crc = header.getInt();
+        if (length <= 0 || length > MAX_RECORD_BYTES) {
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(payload, offset + HEADER_BYTES);
+        if (checksum(payload.array()) != crc) {
+            return null;
+        }
+
+        payload.flip();
+        payload.get(); // format version
+        long writtenAt = payload.getLong();
+        readString(payload); // key
+        AiResponse response = new AiResponse();
+        response.setExplanation(readString(payload));
+        response.setExamples(readString(payload));
+        response.setPronunciation(readString(payload));
+        response.setAdjective(payload.get() != 0);
+        return new StoredRecord(writtenAt, response, HEADER_BYTES + length);
+    }
+
+    /**
+     * Size of the record at the offset, read from its header
+     */
+    private long recordBytes(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        readFully(header, offset);
+        header.flip();
+        return HEADER_BYTES + header.getInt();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of " + path);
+            }
+        }
+    }
+
+    private static byte[] encodeRecord(String key, AiResponse response, long writtenAt) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0); // length, patched below
+            out.writeInt(0); // crc, patched below
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(writtenAt);
+            writeString(out, key);
+            writeString(out, response.getExplanation());
+            writeString(out, response.getExamples());
+            writeString(out, response.getPronunciation());
+            out.writeByte(response.isAdjective() ? 1 : 0);
+            out.flush();
+
+            byte[] record = bytes.toByteArray();
+            int length = record.length - HEADER_BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(record, HEADER_BYTES, length);
+            ByteBuffer.wrap(record).putInt(length).putInt((int) crc.getValue());
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private record PendingWrite(String key, AiResponse response) {
+    }
+
+    private record StoredRecord(long writtenAt, AiResponse response, int bytes) {
+    }
+}
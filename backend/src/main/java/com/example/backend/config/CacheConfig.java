@@ -0,0 +1,31 @@
+package com.example.backend.config;
+
+import com.example.backend.cache.ExplanationStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExplanationStore explanationStore(
+            @Value("${app.cache.persistent.enabled:true}") boolean enabled,
+            @Value("${app.cache.persistent.path:data/explanations.log}") String path,
+            @Value("${app.cache.persistent.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${app.cache.persistent.batch-size:64}") int batchSize,
+            @Value("${app.cache.persistent.fsync:false}") boolean fsync,
+            @Value("${app.cache.persistent.compact-dead-bytes:67108864}") long compactDeadBytes,
+            @Value("${app.cache.ai.ttl-hours:720}") long ttlHours) {
+        if (!enabled) {
+            return ExplanationStore.disabled();
+        }
+        // Explanations outlive restarts; they are written behind in batches and
+        // replayed into the index at startup, and compacted as rewrites pile up
+        return new ExplanationStore(Path.of(path), Duration.ofHours(ttlHours),
+                Duration.ofMillis(flushIntervalMs), batchSize, fsync, compactDeadBytes);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.backend.config;
+
+import com.example.backend.lexicon.Lexicon;
+import com.example.backend.lexicon.PinyinConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+@Configuration
+public class LexiconConfig {
+
+    @Bean
+    public Lexicon lexicon(
+            @Value("${app.lexicon.enabled:true}") boolean enabled,
+            @Value("${app.lexicon.source:classpath:lexicon/ms-zh.tsv}") Resource source,
+            @Value("${app.lexicon.path:data/lexicon.bin}") String path) {
+        if (!enabled) {
+            return Lexicon.empty();
+        }
+        // The binary file is rebuilt only when the source text changes
+        try {
+            return Lexicon.open(Path.of(path), source.getContentAsString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read lexicon source " + source, e);
+        }
+    }
+
+    @Bean
+    public PinyinConverter pinyinConverter(
+            @Value("${app.pinyin.enabled:true}") boolean enabled,
+            @Value("${app.pinyin.chars:classpath:pinyin/chars.tsv}") Resource chars,
+            @Value("${app.pinyin.phrases:classpath:pinyin/phrases.tsv}") Resource phrases) {
+        if (!enabled) {
+            return PinyinConverter.empty();
+        }
+        try {
+            return PinyinConverter.load(chars.getContentAsString(StandardCharsets.UTF_8),
+                    phrases.getContentAsString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read pinyin tables " + chars + ", " + phrases, e);
+        }
+    }
+}
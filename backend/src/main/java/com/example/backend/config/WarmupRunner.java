@@ -0,0 +1,45 @@
+package com.example.backend.config;
+
+import com.example.backend.service.WarmupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a warm-up from the command line, e.g.
+ * {@code java -jar backend.jar --app.warmup.on-startup=true --app.warmup.file=words.txt --app.warmup.exit-when-done=true}
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.on-startup", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private final WarmupService warmupService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.warmup.exit-when-done:false}")
+    private boolean exitWhenDone;
+
+    public WarmupRunner(WarmupService warmupService, ConfigurableApplicationContext context) {
+        this.warmupService = warmupService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmupService.start(0);
+        if (!exitWhenDone) {
+            return;
+        }
+        WarmupService.State state = warmupService.await();
+        logger.info("Warm-up finished with state {}, shutting down", state);
+        System.exit(SpringApplication.exit(context, () -> state == WarmupService.State.COMPLETED ? 0 : 1));
+    }
+}
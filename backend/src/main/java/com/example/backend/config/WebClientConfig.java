@@ -1,29 +1,70 @@
 package com.example.backend.config;
 
 import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * One WebClient per upstream, each on its own connection pool, so that
+ * multi-minute Ollama generations cannot hold the connections that quick
+ * LibreTranslate calls need.
+ * <p>
+ * Pool metrics (active, idle and pending connections, and the time spent
+ * acquiring one) are published to Micrometer as
+ * {@code reactor.netty.connection.provider.*}, tagged with the pool name.
+ */
 @Configuration
 public class WebClientConfig {
 
     @Bean
-    public WebClient webClient() {
-        // Set up HTTP client with very long timeouts for LLM inference
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 60000) // 60 seconds connection timeout
-                .responseTimeout(Duration.ofMinutes(5)) // 5 minutes response timeout for LLM
-                .doOnConnected(conn -> conn.addHandlerLast(new ReadTimeoutHandler(5, TimeUnit.MINUTES))
-                        .addHandlerLast(new WriteTimeoutHandler(5, TimeUnit.MINUTES)));
+    public WebClient ollamaWebClient(
+            @Value("${ollama.http.max-connections:16}") int maxConnections,
+            @Value("${ollama.http.pending-acquire-max:256}") int pendingAcquireMax,
+            @Value("${ollama.http.pending-acquire-timeout-ms:60000}") long pendingAcquireTimeoutMillis,
+            @Value("${ollama.http.max-idle-seconds:60}") long maxIdleSeconds,
+            @Value("${ollama.http.connect-timeout-ms:10000}") int connectTimeoutMillis,
+            @Value("${ollama.http.response-timeout-seconds:300}") long responseTimeoutSeconds) {
+        // Long timeouts for LLM inference
+        return build("ollama", maxConnections, pendingAcquireMax, Duration.ofMillis(pendingAcquireTimeoutMillis),
+                Duration.ofSeconds(maxIdleSeconds), connectTimeoutMillis, Duration.ofSeconds(responseTimeoutSeconds));
+    }
+
+    @Bean
+    public WebClient libreTranslateWebClient(
+            @Value("${libretranslate.http.max-connections:32}") int maxConnections,
+            @Value("${libretranslate.http.pending-acquire-max:512}") int pendingAcquireMax,
+            @Value("${libretranslate.http.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMillis,
+            @Value("${libretranslate.http.max-idle-seconds:30}") long maxIdleSeconds,
+            @Value("${libretranslate.http.connect-timeout-ms:2000}") int connectTimeoutMillis,
+            @Value("${libretranslate.http.response-timeout-seconds:15}") long responseTimeoutSeconds) {
+        return build("libretranslate", maxConnections, pendingAcquireMax,
+                Duration.ofMillis(pendingAcquireTimeoutMillis), Duration.ofSeconds(maxIdleSeconds),
+                connectTimeoutMillis, Duration.ofSeconds(responseTimeoutSeconds));
+    }
+
+    private static WebClient build(String name, int maxConnections, int pendingAcquireMax,
+            Duration pendingAcquireTimeout, Duration maxIdleTime, int connectTimeoutMillis, Duration responseTimeout) {
+        ConnectionProvider connections = ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                // Close idle connections even when the pool is not in use
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(responseTimeout);
 
         // Set up exchange strategies with large buffer size
         ExchangeStrategies strategies = ExchangeStrategies.builder()
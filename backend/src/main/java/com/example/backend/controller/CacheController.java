@@ -1,6 +1,9 @@
 package com.example.backend.controller;
 
 import com.example.backend.service.DeepseekAiService;
+import com.example.backend.service.DictionaryService;
+import com.example.backend.service.SuggestionService;
+import com.example.backend.service.TranslationService;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,9 +18,16 @@ import java.util.Map;
 public class CacheController {
     private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
     private final DeepseekAiService deepseekAiService;
+    private final DictionaryService dictionaryService;
+    private final TranslationService translationService;
+    private final SuggestionService suggestionService;
 
-    public CacheController(DeepseekAiService deepseekAiService) {
+    public CacheController(DeepseekAiService deepseekAiService, DictionaryService dictionaryService,
+            TranslationService translationService, SuggestionService suggestionService) {
         this.deepseekAiService = deepseekAiService;
+        this.dictionaryService = dictionaryService;
+        this.translationService = translationService;
+        this.suggestionService = suggestionService;
     }
 
     /**
@@ -26,8 +36,28 @@ public class CacheController {
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getCacheStats() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("size", deepseekAiService.getCacheSize());
         stats.put("enabled", deepseekAiService.isCacheEnabled());
+        stats.put("explanations", deepseekAiService.getCacheStats());
+        stats.put("responses", dictionaryService.getCacheStats());
+        stats.put("persistent", deepseekAiService.getStoreStats());
+        stats.put("lexicon", dictionaryService.getLexiconStats());
+        stats.put("pinyin", dictionaryService.getPinyinStats());
+        stats.put("fuzzy", dictionaryService.getFuzzyStats());
+        stats.put("stemming", dictionaryService.getStemmingStats());
+        stats.put("enrichment", dictionaryService.getEnrichmentStats());
+        stats.put("suggestions", suggestionService.getStats());
+        stats.put("translations", translationService.getCacheStats());
+        stats.put("translationBatching", translationService.getBatchStats());
+        stats.put("coalescedRequests", deepseekAiService.getCoalescedRequests());
+        stats.put("inFlightRequests", deepseekAiService.getInFlightRequests());
+        stats.put("generation", deepseekAiService.getGenerationStats());
+        stats.put("limiter", deepseekAiService.getLimiterStats());
+        stats.put("ollama", deepseekAiService.getBackendStats());
+        stats.put("breakers", Map.of(
+                "libretranslate", translationService.getBreakerStats(),
+                "ollama", deepseekAiService.getBreakerStats()));
+        stats.put("shedExplanations", dictionaryService.getShedExplanations());
+
         stats.put("timestamp", System.currentTimeMillis());
         logger.debug("Cache stats requested: {}", stats);
         return ResponseEntity.ok(stats);
@@ -40,6 +70,8 @@ public class CacheController {
     public ResponseEntity<Map<String, Object>> clearCache() {
         int sizeBefore = deepseekAiService.getCacheSize();
         deepseekAiService.clearCache();
+        dictionaryService.clearCache();
+        translationService.clearCache();
 
         Map<String, Object> response = new HashMap<>();
         response.put("status", "success");
@@ -1,27 +1,136 @@
 package com.example.backend.controller;
 
+import com.example.backend.metrics.Meters;
+import com.example.backend.model.BatchLookupRequest;
 import com.example.backend.model.DictionaryResponse;
 import com.example.backend.service.DictionaryService;
+import com.example.backend.service.SuggestionService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*") // For development; restrict in production
 public class DictionaryController {
 
     private final DictionaryService dictionaryService;
+    private final SuggestionService suggestionService;
+    private final MeterRegistry meterRegistry;
+    private final ServerTimingWriter serverTimingWriter;
+
+    @Value("${app.batch.max-words:500}")
+    private int batchMaxWords;
 
-    public DictionaryController(DictionaryService dictionaryService) {
+    public DictionaryController(DictionaryService dictionaryService, SuggestionService suggestionService,
+            MeterRegistry meterRegistry, ServerTimingWriter serverTimingWriter) {
         this.dictionaryService = dictionaryService;
+        this.suggestionService = suggestionService;
+        this.meterRegistry = meterRegistry;
+        this.serverTimingWriter = serverTimingWriter;
     }
 
+    /**
+     * Looks up a word. With fast=true the response is sent as soon as the
+     * translation is known; if the explanation is still being generated it
+     * carries enrichmentPending and a token for /translate/enrichment/{token}.
+     * The Server-Timing header breaks the latency down by stage.
+     */
     @GetMapping("/translate")
-    public Mono<ResponseEntity<DictionaryResponse>> translate(@RequestParam String word) {
-        return dictionaryService.processWord(word)
-                .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.notFound().build());
+    public Mono<ResponseEntity<byte[]>> translate(@RequestParam String word,
+            @RequestParam(defaultValue = "false") boolean fast) {
+        Mono<DictionaryResponse> response = fast ? dictionaryService.processWordFast(word)
+                : dictionaryService.processWord(word);
+        return serverTimingWriter.write(Meters.timed(response, meterRegistry, "ekamus.request",
+                "endpoint", "translate", "mode", fast ? "fast" : "full")
+                .map(DictionaryController::toEntity)
+                .defaultIfEmpty(ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * Fetches the complete response behind an enrichment token. Answers 200
+     * when the explanation is ready and 202 while it is still being generated;
+     * with wait=true the request is held until it is ready instead.
+     */
+    @GetMapping("/translate/enrichment/{token}")
+    public Mono<ResponseEntity<DictionaryResponse>> enrichment(@PathVariable String token,
+            @RequestParam(defaultValue = "false") boolean wait) {
+        if (wait) {
+            return dictionaryService.awaitEnrichment(token)
+                    .map(DictionaryController::toEntity)
+                    .defaultIfEmpty(ResponseEntity.notFound().build());
+        }
+        try {
+            DictionaryResponse response = dictionaryService.peekEnrichment(token);
+            return Mono.just(response == null ? ResponseEntity.accepted().build() : toEntity(response));
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+    }
+
+    /**
+     * Streams a lookup as Server-Sent Events. Each event is named after the
+     * section it carries (MANDARIN, PRONUNCIATION, EXPLANATION, EXAMPLES,
+     * IS_ADJECTIVE or ERROR) and the stream ends with a DONE event.
+     */
+    @GetMapping(value = "/translate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> translateStream(@RequestParam String word) {
+        return dictionaryService.streamWord(word)
+                .map(section -> ServerSentEvent.builder(section.getContent())
+                        .event(section.getName())
+                        .build())
+                .concatWith(Flux.just(ServerSentEvent.builder("").event("DONE").build()));
+    }
+
+    /**
+     * Looks up many words at once. Responses are streamed as newline-delimited
+     * JSON in completion order: cached words first, then the rest as each
+     * finishes, so one slow word does not hold up the others.
+     */
+    @PostMapping(value = "/translate/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DictionaryResponse> translateBatch(@RequestBody BatchLookupRequest request) {
+        if (request.getWords() == null || request.getWords().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No words provided");
+        }
+        if (request.getWords().size() > batchMaxWords) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Too many words: " + request.getWords().size() + " (maximum " + batchMaxWords + ")");
+        }
+        return dictionaryService.processWords(request.getWords());
+    }
+
+    /**
+     * Answers 503 with Retry-After, still carrying the translation and pinyin,
+     * when the explanation was shed because the model is overloaded
+     */
+    private static ResponseEntity<DictionaryResponse> toEntity(DictionaryResponse response) {
+        if (response.getRetryAfterSeconds() == null) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(response.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    /**
+     * Suggests known Malay words starting with a prefix, most popular first
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggest(@RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<String> suggestions = suggestionService.suggest(prefix, limit);
+        return ResponseEntity.ok(Map.of("prefix", prefix, "suggestions", suggestions));
     }
 }
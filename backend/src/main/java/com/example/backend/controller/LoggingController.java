@@ -0,0 +1,63 @@
+package com.example.backend.controller;
+
+import com.example.backend.logging.RequestLogFilter;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/logging")
+@CrossOrigin(origins = "*") // For development; restrict in production
+public class LoggingController {
+    private static final Logger logger = LoggerFactory.getLogger(LoggingController.class);
+    private final RequestLogFilter requestLogFilter;
+
+    public LoggingController(RequestLogFilter requestLogFilter) {
+        this.requestLogFilter = requestLogFilter;
+    }
+
+    /**
+     * Get the trace sampling rate and the request ID whose payloads are logged
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getSettings() {
+        return ResponseEntity.ok(settings());
+    }
+
+    /**
+     * Log the full payloads and all traces of the request sent with this
+     * X-Request-Id, replacing any previous ID
+     */
+    @PutMapping("/payload-request-id")
+    public ResponseEntity<Map<String, Object>> logPayloadsOf(@RequestParam String id) {
+        try {
+            requestLogFilter.setPayloadRequestId(id);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        logger.info("Logging full payloads of request {}", id);
+        return ResponseEntity.ok(settings());
+    }
+
+    /**
+     * Stop logging full payloads
+     */
+    @DeleteMapping("/payload-request-id")
+    public ResponseEntity<Map<String, Object>> stopLoggingPayloads() {
+        requestLogFilter.setPayloadRequestId(null);
+        logger.info("Stopped logging full payloads");
+        return ResponseEntity.ok(settings());
+    }
+
+    private Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("traceSampleRate", requestLogFilter.getTraceSampleRate());
+        settings.put("payloadRequestId", requestLogFilter.getPayloadRequestId());
+        return settings;
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.backend.controller;
 
+import com.example.backend.metrics.Meters;
 import com.example.backend.model.SentenceTranslationRequest;
 import com.example.backend.model.SentenceTranslationResponse;
 import com.example.backend.service.TranslationService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
@@ -13,14 +15,22 @@ import reactor.core.publisher.Mono;
 public class SentenceTranslationController {
 
     private final TranslationService translationService;
+    private final MeterRegistry meterRegistry;
+    private final ServerTimingWriter serverTimingWriter;
 
-    public SentenceTranslationController(TranslationService translationService) {
+    public SentenceTranslationController(TranslationService translationService, MeterRegistry meterRegistry,
+            ServerTimingWriter serverTimingWriter) {
         this.translationService = translationService;
+        this.meterRegistry = meterRegistry;
+        this.serverTimingWriter = serverTimingWriter;
     }
 
     @PostMapping("/translate-sentence")
-    public Mono<ResponseEntity<SentenceTranslationResponse>> translateSentence(
-            @RequestBody SentenceTranslationRequest request) {
+    public Mono<ResponseEntity<byte[]>> translateSentence(@RequestBody SentenceTranslationRequest request) {
+        return serverTimingWriter.write(translate(request));
+    }
+
+    private Mono<ResponseEntity<SentenceTranslationResponse>> translate(SentenceTranslationRequest request) {
         if (request.getSentence() == null || request.getSentence().trim().isEmpty()) {
             SentenceTranslationResponse errorResponse = new SentenceTranslationResponse();
             errorResponse.setOriginalSentence("");
@@ -35,7 +45,8 @@ public class SentenceTranslationController {
         String sourceLanguage = request.getSourceLanguage() != null ? request.getSourceLanguage() : "ms";
         String targetLanguage = request.getTargetLanguage() != null ? request.getTargetLanguage() : "zh";
 
-        return translationService.translateText(request.getSentence(), sourceLanguage, targetLanguage)
+        return Meters.timed(translationService.translateText(request.getSentence(), sourceLanguage, targetLanguage),
+                meterRegistry, "ekamus.request", "endpoint", "translate-sentence", "mode", "full")
                 .map(translatedText -> {
                     SentenceTranslationResponse response = new SentenceTranslationResponse();
                     response.setOriginalSentence(request.getSentence());
@@ -57,7 +68,7 @@ public class SentenceTranslationController {
     }
 
     @GetMapping("/translate-sentence")
-    public Mono<ResponseEntity<SentenceTranslationResponse>> translateSentenceGet(
+    public Mono<ResponseEntity<byte[]>> translateSentenceGet(
             @RequestParam String sentence,
             @RequestParam(required = false, defaultValue = "ms") String from,
             @RequestParam(required = false, defaultValue = "zh") String to) {
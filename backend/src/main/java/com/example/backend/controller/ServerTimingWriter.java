@@ -0,0 +1,62 @@
+package com.example.backend.controller;
+
+import com.example.backend.metrics.ServerTiming;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Adds a {@code Server-Timing} header to a response, breaking its latency
+ * down into the stages the services recorded for it (cache, lexicon,
+ * libretranslate, ollama, parse) and serialization.
+ * <p>
+ * The body is serialized here rather than by Spring so that serialization
+ * can be timed before the headers are sent.
+ */
+@Component
+class ServerTimingWriter {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.server-timing.enabled:true}")
+    private boolean enabled;
+
+    ServerTimingWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Times a response from now until it is serialized
+     */
+    <T> Mono<ResponseEntity<byte[]>> write(Mono<ResponseEntity<T>> response) {
+        ServerTiming timing = ServerTiming.start();
+        Mono<ResponseEntity<byte[]>> written = response.map(entity -> serialize(entity, timing));
+        return enabled ? written.contextWrite(timing::writeTo) : written;
+    }
+
+    private ResponseEntity<byte[]> serialize(ResponseEntity<?> entity, ServerTiming timing) {
+        long start = System.nanoTime();
+        byte[] body;
+        try {
+            body = entity.getBody() == null ? null : objectMapper.writeValueAsBytes(entity.getBody());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        timing.record("serialize", null, System.nanoTime() - start);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(entity.getStatusCode())
+                .headers(entity.getHeaders());
+        if (enabled) {
+            // Timing-Allow-Origin lets the cross-origin frontend read the header
+            builder.header("Server-Timing", timing.header())
+                    .header("Timing-Allow-Origin", "*");
+        }
+        return body == null ? builder.build() : builder.contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
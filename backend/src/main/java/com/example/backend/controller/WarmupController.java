@@ -0,0 +1,56 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.WarmupService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/warmup")
+@CrossOrigin(origins = "*") // For development; restrict in production
+public class WarmupController {
+    private static final Logger logger = LoggerFactory.getLogger(WarmupController.class);
+    private final WarmupService warmupService;
+
+    public WarmupController(WarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    /**
+     * Get the progress, throughput and ETA of the current or last warm-up run
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(warmupService.getStatus());
+    }
+
+    /**
+     * Start warming the caches from the configured word list, resuming from its
+     * checkpoint if a previous run was interrupted
+     */
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> start(@RequestParam(defaultValue = "0") int concurrency) {
+        try {
+            return ResponseEntity.accepted().body(warmupService.start(concurrency));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (UncheckedIOException e) {
+            logger.error("Unable to start warm-up: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Cancel the current warm-up run
+     */
+    @PostMapping("/cancel")
+    public ResponseEntity<Map<String, Object>> cancel() {
+        return ResponseEntity.ok(warmupService.cancel());
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.backend.lexicon;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Symmetric-delete spelling index in the style of SymSpell.
+ * <p>
+ * Every indexed word is stored under each string obtained by deleting up to
+ * {@code maxDistance} characters from it. A query generates its own deletes
+ * and only the words sharing one of them are compared with a real edit
+ * distance, so a lookup costs a few hash probes instead of a scan over all
+ * words. Distances count insertions, deletions, substitutions and swaps of
+ * adjacent characters.
+ */
+public final class FuzzyIndex {
+
+    private final int maxDistance;
+    private final Map<String, List<String>> deletes = new HashMap<>();
+    private final Set<String> words = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Result of a lookup: the indexed word closest to the query and its
+     * distance
+     */
+    public record Match(String word, int distance) {
+    }
+
+    public FuzzyIndex(int maxDistance) {
+        this.maxDistance = Math.max(1, maxDistance);
+    }
+
+    /**
+     * Adds a word to the index; adding it again has no effect
+     */
+    public void add(String word) {
+        lock.writeLock().lock();
+        try {
+            if (!words.add(word)) {
+                return;
+            }
+            for (String variant : deletesOf(word, maxDistance)) {
+                deletes.computeIfAbsent(variant, key -> new ArrayList<>(1)).add(word);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a word from the index; removing a word that is not indexed has
+     * no effect
+     */
+    public void remove(String word) {
+        lock.writeLock().lock();
+        try {
+            if (!words.remove(word)) {
+                return;
+            }
+            for (String variant : deletesOf(word, maxDistance)) {
+                List<String> candidates = deletes.get(variant);
+                if (candidates != null && candidates.remove(word) && candidates.isEmpty()) {
+                    deletes.remove(variant);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the unique indexed word closest to the query within the given
+     * distance. Returns null when nothing is close enough, when the query is
+     * itself indexed, or when several words are equally close, since an
+     * ambiguous correction is more likely wrong than right.
+     */
+    public Match closest(String query, int distance) {
+        int limit = Math.min(distance, maxDistance);
+        if (limit <= 0) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (words.contains(query)) {
+                return null;
+            }
+            String best = null;
+            int bestDistance = Integer.MAX_VALUE;
+            boolean ambiguous = false;
+            Set<String> compared = new HashSet<>();
+            for (String variant : deletesOf(query, limit)) {
+                List<String> candidates = deletes.get(variant);
+                if (candidates == null) {
+                    continue;
+                }
+                for (String candidate : candidates) {
+                    if (!compared.add(candidate)) {
+                        continue;
+                    }
+                    int d = distance(query, candidate, limit);
+                    if (d < bestDistance) {
+                        best = candidate;
+                        bestDistance = d;
+                        ambiguous = false;
+                    } else if (d == bestDistance && d <= limit) {
+                        ambiguous = true;
+                    }
+                }
+            }
+            return best != null && bestDistance <= limit && !ambiguous ? new Match(best, bestDistance) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return words.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the word and every string reachable from it by deleting up to
+     * {@code distance} characters
+     */
+    static Set<String> deletesOf(String word, int distance) {
+        Set<String> result = new HashSet<>();
+        result.add(word);
+        List<String> frontier = List.of(word);
+        for (int d = 0; d < distance; d++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                for (int i = 0; i < current.length(); i++) {
+                    String deleted = current.substring(0, i) + current.substring(i + 1);
+                    if (result.add(deleted)) {
+                        next.add(deleted);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return result;
+    }
+
+    /**
+     * Optimal string alignment distance, or {@code limit + 1} once it is known
+     * to exceed the limit
+     */
+    static int distance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+}
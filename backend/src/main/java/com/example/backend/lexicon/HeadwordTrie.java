@@ -0,0 +1,244 @@
+package com.example.backend.lexicon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix tree of headwords weighted by popularity, answering "the k most
+ * popular words starting with this prefix".
+ * <p>
+ * Children are kept in sorted parallel arrays and every node records the
+ * highest weight found in its subtree. A query walks down to the prefix node
+ * and then expands nodes best-first by that maximum, so it touches only the
+ * branches that can still contribute to the top k instead of the whole
+ * subtree. Adding to a weight updates the maxima in a single pass along the
+ * word's path; removing a word recomputes them along its path from the
+ * children and prunes the branches left without words. Reads share a lock
+ * and run in parallel; updates take it exclusively.
+ */
+public final class HeadwordTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    // Best first, ties broken alphabetically so results are stable
+    private static final Comparator<Candidate> ORDER = Comparator.comparingLong(Candidate::priority).reversed()
+            .thenComparing(Candidate::text);
+
+    private final Node root = new Node();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        // Popularity of the word ending here, 0 if no word ends here
+        private long weight;
+        // Highest weight of any word in this subtree
+        private long best;
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node addChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insert = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            System.arraycopy(labels, insert, newLabels, insert + 1, labels.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            Node child = new Node();
+            newLabels[insert] = label;
+            newChildren[insert] = child;
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels.length == 0 ? NO_LABELS : newLabels;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+    }
+
+    private record Candidate(Node node, String text, long priority, boolean word) {
+    }
+
+    /**
+     * Adds a word or raises its popularity
+     *
+     * @param word  The headword
+     * @param delta Popularity to add, at least 1
+     */
+    public void add(String word, long delta) {
+        if (word == null || word.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addLocked(word, delta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds words or raises their popularity under a single write lock, so
+     * batched updates hold up readers once rather than once per word
+     *
+     * @param deltas Popularity to add per headword, at least 1
+     */
+    public void addAll(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            deltas.forEach((word, delta) -> {
+                if (word != null && !word.isEmpty()) {
+                    addLocked(word, delta);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(String word, long delta) {
+        long increment = Math.max(1, delta);
+        Node[] path = new Node[word.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.addChild(word.charAt(i));
+            path[i + 1] = node;
+        }
+        if (node.weight == 0) {
+            size++;
+        }
+        node.weight += increment;
+        long weight = node.weight;
+        for (Node onPath : path) {
+            if (onPath.best < weight) {
+                onPath.best = weight;
+            }
+        }
+    }
+
+    /**
+     * Removes a word, whatever its popularity
+     *
+     * @return Whether the word was present
+     */
+    public boolean remove(String word) {
+        if (word == null || word.isEmpty()) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            Node[] path = new Node[word.length() + 1];
+            Node node = root;
+            path[0] = node;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.child(word.charAt(i));
+                if (node == null) {
+                    return false;
+                }
+                path[i + 1] = node;
+            }
+            if (node.weight == 0) {
+                return false;
+            }
+            node.weight = 0;
+            size--;
+            for (int i = word.length(); i >= 0; i--) {
+                Node onPath = path[i];
+                long best = onPath.weight;
+                for (Node child : onPath.children) {
+                    best = Math.max(best, child.best);
+                }
+                onPath.best = best;
+                if (best == 0 && i > 0) {
+                    path[i - 1].removeChild(word.charAt(i - 1));
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} words starting with {@code prefix}, most
+     * popular first
+     */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> suggestions = new ArrayList<>(limit);
+        if (limit <= 0) {
+            return suggestions;
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            if (node == null || node.best == 0) {
+                return suggestions;
+            }
+
+            PriorityQueue<Candidate> queue = new PriorityQueue<>(ORDER);
+            queue.add(new Candidate(node, prefix, node.best, false));
+            while (!queue.isEmpty() && suggestions.size() < limit) {
+                Candidate candidate = queue.poll();
+                if (candidate.word()) {
+                    suggestions.add(candidate.text());
+                    continue;
+                }
+                Node current = candidate.node();
+                if (current.weight > 0) {
+                    queue.add(new Candidate(current, candidate.text(), current.weight, true));
+                }
+                for (int i = 0; i < current.labels.length; i++) {
+                    Node child = current.children[i];
+                    queue.add(new Candidate(child, candidate.text() + current.labels[i], child.best, false));
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.backend.lexicon;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable Malay to Mandarin lexicon held in a memory-mapped file.
+ * <p>
+ * The file is built from a tab-separated source ({@code malay, mandarin,
+ * pinyin}) and laid out as a header, a table of record offsets and the
+ * records sorted by the UTF-8 bytes of their headword:
+ * <pre>
+ * [magic][version][source crc32][count] [offset] * count [record] * count
+ * record = [key length][key][mandarin length][mandarin][pinyin length][pinyin]
+ * </pre>
+ * Lookups binary search the offset table and compare key bytes in place, so
+ * the entries stay off the heap and a lookup allocates only the result.
+ */
+public class Lexicon {
+
+    private static final Logger logger = LoggerFactory.getLogger(Lexicon.class);
+
+    private static final int MAGIC = 0x4C455831; // "LEX1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private final ByteBuffer data;
+    private final int count;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public record Entry(String malay, String mandarin, String pinyin) {
+    }
+
+    private Lexicon(ByteBuffer data) {
+        this.data = data;
+        this.count = data == null ? 0 : data.getInt(HEADER_BYTES - Integer.BYTES);
+    }
+
+    /**
+     * Returns a lexicon without entries, used when the lexicon is switched off
+     */
+    public static Lexicon empty() {
+        return new Lexicon(null);
+    }
+
+    /**
+     * Maps the lexicon file at {@code path}, first (re)building it from the
+     * source when the file is missing or was built from different source text.
+     *
+     * @param path   Location of the binary lexicon
+     * @param source Tab-separated source text
+     */
+    public static Lexicon open(Path path, String source) {
+        int sourceCrc = crc(source);
+        try {
+            if (!isCurrent(path, sourceCrc)) {
+                long start = System.nanoTime();
+                int entries = build(source, sourceCrc, path);
+                logger.info("Built lexicon {} with {} entries in {} ms", path, entries,
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                Lexicon lexicon = new Lexicon(buffer);
+                logger.info("Mapped lexicon {} with {} entries ({} bytes)", path, lexicon.size(), channel.size());
+                return lexicon;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open lexicon at " + path, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return data != null;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Looks up a normalized Malay word
+     *
+     * @return The entry, or null if the word is not in the lexicon
+     */
+    public Entry lookup(String word) {
+        if (count == 0 || word == null) {
+            return null;
+        }
+        int index = indexOf(word.getBytes(StandardCharsets.UTF_8));
+        if (index < 0) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return readEntry(recordOffset(index));
+    }
+
+    /**
+     * Looks up a normalized Malay word without counting a hit or miss
+     *
+     * @return The entry, or null if the word is not in the lexicon
+     */
+    public Entry peek(String word) {
+        if (count == 0 || word == null) {
+            return null;
+        }
+        int index = indexOf(word.getBytes(StandardCharsets.UTF_8));
+        return index < 0 ? null : readEntry(recordOffset(index));
+    }
+
+    /**
+     * Checks whether a word is in the lexicon without counting a hit or miss
+     */
+    public boolean contains(String word) {
+        return count > 0 && word != null && indexOf(word.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    /**
+     * Visits every entry in headword order
+     */
+    public void forEach(Consumer<Entry> consumer) {
+        for (int i = 0; i < count; i++) {
+            consumer.accept(readEntry(recordOffset(i)));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("size", count);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("fileBytes", data == null ? 0 : data.capacity());
+        return stats;
+    }
+
+    private int indexOf(byte[] key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(recordOffset(mid), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int recordOffset(int index) {
+        return data.getInt(HEADER_BYTES + index * Integer.BYTES);
+    }
+
+    private int compareKey(int offset, byte[] key) {
+        int length = Short.toUnsignedInt(data.getShort(offset));
+        int start = offset + Short.BYTES;
+        int shared = Math.min(length, key.length);
+        for (int i = 0; i < shared; i++) {
+            int cmp = Integer.compare(Byte.toUnsignedInt(data.get(start + i)), Byte.toUnsignedInt(key[i]));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private Entry readEntry(int offset) {
+        String[] fields = new String[3];
+        int position = offset;
+        for (int i = 0; i < fields.length; i++) {
+            int length = Short.toUnsignedInt(data.getShort(position));
+            byte[] bytes = new byte[length];
+            data.get(position + Short.BYTES, bytes);
+            fields[i] = new String(bytes, StandardCharsets.UTF_8);
+            position += Short.BYTES + length;
+        }
+        return new Entry(fields[0], fields[1], fields[2].isEmpty() ? null : fields[2]);
+    }
+
+    private static boolean isCurrent(Path path, int sourceCrc) throws IOException {
+        if (!Files.exists(path) || Files.size(path) < HEADER_BYTES) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+            return header.getInt() == MAGIC && header.getInt() == VERSION && header.getInt() == sourceCrc;
+        }
+    }
+
+    /**
+     * Writes the binary lexicon for the given source text
+     *
+     * @return The number of entries written
+     */
+    static int build(String source, int sourceCrc, Path path) throws IOException {
+        List<byte[][]> records = parse(new StringReader(source));
+        records.sort((a, b) -> Arrays.compareUnsigned(a[0], b[0]));
+
+        // Keep the first entry of a duplicated headword
+        List<byte[][]> unique = new ArrayList<>(records.size());
+        for (byte[][] record : records) {
+            if (unique.isEmpty() || !Arrays.equals(unique.get(unique.size() - 1)[0], record[0])) {
+                unique.add(record);
+            }
+        }
+
+        int count = unique.size();
+        ByteBuffer offsets = ByteBuffer.allocate(count * Integer.BYTES);
+        int offset = HEADER_BYTES + count * Integer.BYTES;
+        for (byte[][] record : unique) {
+            offsets.putInt(offset);
+            for (byte[] field : record) {
+                offset += Short.BYTES + field.length;
+            }
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(VERSION).putInt(sourceCrc).putInt(count);
+            out.write(header.array());
+            out.write(offsets.array());
+            ByteBuffer length = ByteBuffer.allocate(Short.BYTES);
+            for (byte[][] record : unique) {
+                for (byte[] field : record) {
+                    length.clear();
+                    out.write(length.putShort((short) field.length).array());
+                    out.write(field);
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    private static List<byte[][]> parse(Reader source) throws IOException {
+        List<byte[][]> records = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(source)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length < 2 || fields[0].isBlank() || fields[1].isBlank()) {
+                    continue;
+                }
+                records.add(new byte[][] {
+                        encode(fields[0].trim().toLowerCase(Locale.ROOT)),
+                        encode(fields[1].trim()),
+                        encode(fields.length > 2 ? fields[2].trim() : "") });
+            }
+        }
+        return records;
+    }
+
+    private static byte[] encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Lexicon field too long: " + value.substring(0, 32));
+        }
+        return bytes;
+    }
+
+    private static int crc(String source) {
+        CRC32 crc = new CRC32();
+        crc.update(source.getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.backend.lexicon;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Rule-based stemmer mapping inflected Malay words onto their root.
+ * <p>
+ * Only affixes that leave the meaning of the root intact are removed, since
+ * an inflected word is answered with the translation of its root:
+ * reduplication ({@code kanak-kanak}, {@code sayur-sayuran}), particles
+ * ({@code -lah, -kah, -tah, -pun}), possessives ({@code -nya, -ku, -mu}) and
+ * the verbal prefixes {@code meN-, di-, ber-}, including the nasal forms of
+ * {@code meN-}, whose dropped initial consonant is restored
+ * ({@code menulis -> tulis}, {@code memukul -> pukul},
+ * {@code menyapu -> sapu}, {@code mengira -> kira}). A plain {@code me-} is
+ * only removed before l, r, w and y, the only letters meN- leaves unchanged
+ * ({@code melihat -> lihat}), and never from lexicalized words that merely
+ * look prefixed ({@code melayu} is not {@code me-layu}). Derivational affixes
+ * such as {@code pe-, ke-, se-, ter-, -an, -kan, -i} form words of their own
+ * ({@code pelajar}, {@code mainan}, {@code semasa}) and are left alone.
+ * <p>
+ * Affix stripping is ambiguous ({@code memakan} could be {@code me-makan} or
+ * {@code mem-pakan}), so all candidate roots are generated, least stripped
+ * first, and the first one accepted by the caller's dictionary wins. A word
+ * is never stemmed when it is itself known.
+ */
+public final class MalayStemmer {
+
+    private static final int MIN_ROOT_LENGTH = 3;
+    private static final String[] PARTICLES = { "lah", "kah", "tah", "pun" };
+    private static final String[] POSSESSIVES = { "nya", "ku", "mu" };
+    private static final String VOWELS = "aeiou";
+    private static final String PLAIN_ME_INITIALS = "lrwy";
+
+    /** Words starting with me- that are roots of their own, not prefixed forms */
+    private static final Set<String> LEXICALIZED = Set.of("melayu", "merdeka", "mereka", "merah", "merak",
+            "merpati", "melati", "meriah");
+
+    private MalayStemmer() {
+    }
+
+    /**
+     * Finds the root of an inflected word
+     *
+     * @param word  A normalized (trimmed, lower-case) word
+     * @param known Accepts words that exist as roots, e.g. lexicon or cached
+     *              headwords
+     * @return The root, or null if the word is known itself or no candidate
+     *         root is known
+     */
+    public static String stem(String word, Predicate<String> known) {
+        if (word.length() <= MIN_ROOT_LENGTH || known.test(word)) {
+            return null;
+        }
+        for (String candidate : candidates(word)) {
+            if (!candidate.equals(word) && known.test(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the possible roots of a word in order of preference, starting
+     * with the word itself
+     */
+    static Set<String> candidates(String word) {
+        Set<String> candidates = new LinkedHashSet<>();
+        candidates.add(word);
+
+        String base = unreduplicate(word);
+        candidates.add(base);
+
+        Set<String> suffixForms = suffixForms(base);
+        candidates.addAll(suffixForms);
+        for (String withoutSuffix : suffixForms) {
+            if (!LEXICALIZED.contains(withoutSuffix)) {
+                candidates.addAll(prefixForms(withoutSuffix));
+            }
+        }
+        candidates.removeIf(candidate -> candidate.length() < MIN_ROOT_LENGTH);
+        return candidates;
+    }
+
+    /**
+     * Collapses reduplication: {@code kanak-kanak -> kanak},
+     * {@code sayur-sayuran -> sayur}, {@code bermain-main -> bermain}
+     */
+    static String unreduplicate(String word) {
+        int dash = word.indexOf('-');
+        if (dash <= 0 || dash == word.length() - 1) {
+            return word;
+        }
+        String left = word.substring(0, dash);
+        String right = word.substring(dash + 1);
+        if (right.startsWith(left) || left.endsWith(right)) {
+            return left;
+        }
+        return word;
+    }
+
+    /**
+     * The word with particle and possessive suffixes removed in that order,
+     * keeping each intermediate form
+     */
+    private static Set<String> suffixForms(String word) {
+        Set<String> forms = new LinkedHashSet<>();
+        for (String withoutParticle : strip(word, PARTICLES)) {
+            forms.addAll(strip(withoutParticle, POSSESSIVES));
+        }
+        return forms;
+    }
+
+    private static Set<String> strip(String word, String[] suffixes) {
+        Set<String> forms = new LinkedHashSet<>();
+        forms.add(word);
+        for (String suffix : suffixes) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= MIN_ROOT_LENGTH) {
+                forms.add(word.substring(0, word.length() - suffix.length()));
+            }
+        }
+        return forms;
+    }
+
+    /**
+     * Roots left by removing one verbal prefix
+     */
+    private static Set<String> prefixForms(String word) {
+        Set<String> forms = new LinkedHashSet<>();
+        if (word.startsWith("me")) {
+            nasalForms(word.substring(2), forms);
+        }
+        for (String prefix : new String[] { "ber", "di" }) {
+            if (word.startsWith(prefix)) {
+                forms.add(word.substring(prefix.length()));
+            }
+        }
+        return forms;
+    }
+
+    /**
+     * Roots behind the nasal forms of meN-, given the word without its first
+     * two letters
+     */
+    private static void nasalForms(String rest, Set<String> forms) {
+        if (rest.startsWith("ny") && rest.length() > 2 && isVowel(rest.charAt(2))) {
+            forms.add("s" + rest.substring(2)); // menyapu -> sapu
+            forms.add(rest); // menyanyi -> nyanyi
+        } else if (rest.startsWith("ng")) {
+            String after = rest.substring(2);
+            if (after.startsWith("e") && after.length() > 1 && !isVowel(after.charAt(1))) {
+                forms.add(after.substring(1)); // mengecat -> cat
+            }
+            forms.add(after); // mengambil -> ambil, menggali -> gali
+            if (!after.isEmpty() && isVowel(after.charAt(0))) {
+                forms.add("k" + after); // mengira -> kira
+            }
+        } else if (rest.startsWith("m")) {
+            String after = rest.substring(1);
+            forms.add(rest); // memasak could be me-masak
+            forms.add(after); // membeli -> beli
+            if (!after.isEmpty() && isVowel(after.charAt(0))) {
+                forms.add("p" + after); // memukul -> pukul
+            }
+        } else if (rest.startsWith("n")) {
+            String after = rest.substring(1);
+            forms.add(rest);
+            forms.add(after); // mendengar -> dengar, mencuci -> cuci
+            if (!after.isEmpty() && isVowel(after.charAt(0))) {
+                forms.add("t" + after); // menulis -> tulis
+            }
+        } else if (!rest.isEmpty() && PLAIN_ME_INITIALS.indexOf(rest.charAt(0)) >= 0) {
+            forms.add(rest); // melihat -> lihat, merasa -> rasa
+        }
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+}
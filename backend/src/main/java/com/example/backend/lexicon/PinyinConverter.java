@@ -0,0 +1,187 @@
+package com.example.backend.lexicon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline conversion of Simplified Chinese to pinyin with tone marks.
+ * <p>
+ * Every character of the CJK Unified Ideographs block has one default
+ * reading, held in an array indexed by code point. Polyphonic characters and
+ * neutral tones are resolved by a phrase table: the text is segmented by
+ * forward maximum matching, so at each position the longest known phrase
+ * supplies its readings and any other character falls back to its default.
+ * Both tables are tab-separated text:
+ * <pre>
+ * chars:   [pinyin] TAB [characters read that way]
+ * phrases: [phrase] TAB [pinyin, one space-separated syllable per character]
+ * </pre>
+ */
+public final class PinyinConverter {
+
+    private static final int FIRST = 0x4E00;
+    private static final int LAST = 0x9FFF;
+
+    // Default reading of each character, null where unknown
+    private final String[] readings;
+    private final Map<String, String[]> phrases;
+    private final int maxPhraseLength;
+    private final AtomicLong conversions = new AtomicLong();
+    private final AtomicLong unconvertible = new AtomicLong();
+
+    private PinyinConverter(String[] readings, Map<String, String[]> phrases) {
+        this.readings = readings;
+        this.phrases = phrases;
+        int longest = 0;
+        for (String phrase : phrases.keySet()) {
+            longest = Math.max(longest, phrase.length());
+        }
+        this.maxPhraseLength = longest;
+    }
+
+    /**
+     * Returns a converter without readings, used when conversion is switched
+     * off; it never converts anything
+     */
+    public static PinyinConverter empty() {
+        return new PinyinConverter(null, Map.of());
+    }
+
+    /**
+     * Builds a converter from the text of a character table and a phrase
+     * table
+     */
+    public static PinyinConverter load(String chars, String phrases) {
+        String[] readings = new String[LAST - FIRST + 1];
+        Map<String, String[]> phraseReadings = new HashMap<>();
+        for (String[] fields : rows(chars)) {
+            String pinyin = fields[0].intern();
+            String characters = fields[1];
+            for (int i = 0; i < characters.length(); i++) {
+                char c = characters.charAt(i);
+                // The first reading listed for a character is its default
+                if (c >= FIRST && c <= LAST && readings[c - FIRST] == null) {
+                    readings[c - FIRST] = pinyin;
+                }
+            }
+        }
+        for (String[] fields : rows(phrases)) {
+            String[] syllables = fields[1].split(" ");
+            if (syllables.length != fields[0].length()) {
+                throw new IllegalArgumentException("Phrase '" + fields[0] + "' has " + syllables.length
+                        + " syllables for " + fields[0].length() + " characters");
+            }
+            phraseReadings.put(fields[0], syllables);
+        }
+        return new PinyinConverter(readings, phraseReadings);
+    }
+
+    public boolean isEnabled() {
+        return readings != null;
+    }
+
+    /**
+     * Converts Chinese text to space-separated pinyin syllables. Runs of other
+     * characters are kept as they are, whitespace is dropped.
+     *
+     * @param text Simplified Chinese, e.g. {@code 银行}
+     * @return The pinyin, e.g. {@code yín háng}, or null if the text contains
+     *         no Chinese characters or a character without a known reading
+     */
+    public String convert(String text) {
+        if (readings == null || text == null) {
+            return null;
+        }
+        List<String> syllables = new ArrayList<>(text.length());
+        boolean sawHanzi = false;
+        int position = 0;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (!isHanzi(c)) {
+                int end = position;
+                while (end < text.length() && !isHanzi(text.charAt(end))
+                        && !Character.isWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                if (end > position) {
+                    syllables.add(text.substring(position, end));
+                }
+                position = Math.max(end, position + 1);
+                continue;
+            }
+            sawHanzi = true;
+
+            String[] phrase = longestPhrase(text, position);
+            if (phrase != null) {
+                for (String syllable : phrase) {
+                    syllables.add(syllable);
+                }
+                position += phrase.length;
+                continue;
+            }
+            String reading = readings[c - FIRST];
+            if (reading == null) {
+                unconvertible.incrementAndGet();
+                return null;
+            }
+            syllables.add(reading);
+            position++;
+        }
+        if (!sawHanzi) {
+            return null;
+        }
+        conversions.incrementAndGet();
+        return String.join(" ", syllables);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("phrases", phrases.size());
+        stats.put("conversions", conversions.get());
+        stats.put("unconvertible", unconvertible.get());
+        return stats;
+    }
+
+    private String[] longestPhrase(String text, int start) {
+        int end = Math.min(text.length(), start + maxPhraseLength);
+        for (; end - start >= 2; end--) {
+            String[] reading = phrases.get(text.substring(start, end));
+            if (reading != null) {
+                return reading;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isHanzi(char c) {
+        return c >= FIRST && c <= LAST;
+    }
+
+    private static List<String[]> rows(String table) {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(table))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length >= 2 && !fields[0].isBlank() && !fields[1].isBlank()) {
+                    rows.add(new String[] { fields[0].trim(), fields[1].trim() });
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.backend.logging;
+
+import org.slf4j.MDC;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * The logging decisions taken for a request, kept in the MDC by
+ * {@link RequestLogFilter}.
+ * <p>
+ * The MDC is only set on the thread that handles the request, while the
+ * replies of upstream calls are handled on Reactor threads. The decisions
+ * therefore travel in the Reactor context like {@code ServerTiming}: the
+ * services put them there with {@link #propagate} on the request thread, and
+ * code assembled on other threads reads them back with {@link #from}.
+ * Callbacks run through {@link #run} or {@link #call}, which put the
+ * decisions back in the MDC of the callback's thread.
+ */
+public final class RequestLog {
+
+    /** MDC key of the request ID, also sent back in the X-Request-Id header */
+    public static final String REQUEST_ID = "requestId";
+
+    /** MDC key set to "true" when the verbose traces of the request are sampled */
+    public static final String TRACE = "trace";
+
+    /** MDC key set to "true" when the full payloads of the request are logged */
+    public static final String PAYLOADS = "payloads";
+
+    /** Work not started by a request, such as the warm-up */
+    public static final RequestLog NONE = new RequestLog(null, false, false);
+
+    private static final Object CONTEXT_KEY = RequestLog.class;
+
+    private final String requestId;
+    private final boolean traced;
+    private final boolean payloads;
+
+    private RequestLog(String requestId, boolean traced, boolean payloads) {
+        this.requestId = requestId;
+        this.traced = traced;
+        this.payloads = payloads;
+    }
+
+    /**
+     * Captures the decisions for the request being handled on this thread
+     */
+    public static RequestLog current() {
+        String requestId = MDC.get(REQUEST_ID);
+        if (requestId == null) {
+            return NONE;
+        }
+        return new RequestLog(requestId, "true".equals(MDC.get(TRACE)), "true".equals(MDC.get(PAYLOADS)));
+    }
+
+    /**
+     * Returns the decisions carried by the Reactor context, or those of the
+     * request being handled on this thread
+     */
+    public static RequestLog from(ContextView context) {
+        RequestLog requestLog = context.getOrDefault(CONTEXT_KEY, null);
+        return requestLog != null ? requestLog : current();
+    }
+
+    /**
+     * Carries the decisions for the request being handled on this thread into
+     * the Reactor context of a lookup assembled on it
+     */
+    public static <T> Mono<T> propagate(Mono<T> mono) {
+        RequestLog requestLog = current();
+        return requestLog == NONE ? mono : mono.contextWrite(requestLog::writeTo);
+    }
+
+    /**
+     * Carries the decisions for the request being handled on this thread into
+     * the Reactor context of a stream assembled on it
+     */
+    public static <T> Flux<T> propagate(Flux<T> flux) {
+        RequestLog requestLog = current();
+        return requestLog == NONE ? flux : flux.contextWrite(requestLog::writeTo);
+    }
+
+    public Context writeTo(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    /**
+     * Picks the most verbose of the requests sharing one upstream call, so a
+     * sampled or payload-logged request keeps its traces when batched with
+     * others
+     */
+    public static RequestLog mostVerbose(Collection<RequestLog> logs) {
+        RequestLog chosen = NONE;
+        for (RequestLog log : logs) {
+            if (log.payloads) {
+                return log;
+            }
+            if (log.traced && !chosen.traced) {
+                chosen = log;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Whether the verbose traces of the request are sampled
+     */
+    public boolean traced() {
+        return traced;
+    }
+
+    /**
+     * Whether the request logs full request and response bodies
+     */
+    public boolean logsPayloads() {
+        return payloads;
+    }
+
+    /**
+     * Runs logging code as if on the request's own thread
+     */
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs logging code as if on the request's own thread and returns its
+     * result. Requests that are not traced log nothing below INFO, so their
+     * MDC is left alone to keep callbacks of unsampled requests cheap.
+     */
+    public <T> T call(Supplier<T> work) {
+        if (!traced || requestId.equals(MDC.get(REQUEST_ID))) {
+            return work.get();
+        }
+        // The thread may be handling another request, e.g. one that filled a batch
+        String previousId = MDC.get(REQUEST_ID);
+        String previousTrace = MDC.get(TRACE);
+        String previousPayloads = MDC.get(PAYLOADS);
+        MDC.put(REQUEST_ID, requestId);
+        MDC.put(TRACE, "true");
+        restore(PAYLOADS, payloads ? "true" : null);
+        try {
+            return work.get();
+        } finally {
+            restore(REQUEST_ID, previousId);
+            restore(TRACE, previousTrace);
+            restore(PAYLOADS, previousPayloads);
+        }
+    }
+
+    private static void restore(String key, String value) {
+        if (value == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.backend.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Tags each request with an ID and decides how much of it is logged.
+ * <p>
+ * The ID is taken from the X-Request-Id header when it is well formed and
+ * generated otherwise, and is sent back in the response. A fraction of
+ * requests, {@code app.logging.trace-sample-rate}, is sampled: their DEBUG
+ * traces are logged whatever the configured level (see
+ * {@link SampledTraceTurboFilter}). The request whose ID equals the payload
+ * switch also logs full request and response bodies.
+ */
+@Component
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "X-Request-Id";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Value("${app.logging.trace-sample-rate:0.0}")
+    private double traceSampleRate;
+
+    // Request ID whose payloads are logged, or null
+    private volatile String payloadRequestId;
+
+    public RequestLogFilter(@Value("${app.logging.payload-request-id:}") String payloadRequestId) {
+        this.payloadRequestId = payloadRequestId.isBlank() ? null : payloadRequestId.trim();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(HEADER);
+        if (requestId == null || !VALID_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        boolean payloads = requestId.equals(payloadRequestId);
+        boolean trace = payloads || (traceSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < traceSampleRate);
+
+        MDC.put(RequestLog.REQUEST_ID, requestId);
+        if (trace) {
+            MDC.put(RequestLog.TRACE, "true");
+        }
+        if (payloads) {
+            MDC.put(RequestLog.PAYLOADS, "true");
+        }
+        response.setHeader(HEADER, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(RequestLog.REQUEST_ID);
+            MDC.remove(RequestLog.TRACE);
+            MDC.remove(RequestLog.PAYLOADS);
+        }
+    }
+
+    /**
+     * Returns the request ID whose payloads are logged, or null
+     */
+    public String getPayloadRequestId() {
+        return payloadRequestId;
+    }
+
+    /**
+     * Logs the full payloads, and all traces, of the request with this ID
+     *
+     * @param requestId The ID the client sends as X-Request-Id, or null to
+     *                  turn payload logging off
+     * @throws IllegalArgumentException if the ID could never match a request
+     */
+    public void setPayloadRequestId(String requestId) {
+        if (requestId != null && !VALID_ID.matcher(requestId).matches()) {
+            throw new IllegalArgumentException("Invalid request ID: " + requestId);
+        }
+        this.payloadRequestId = requestId;
+    }
+
+    public double getTraceSampleRate() {
+        return traceSampleRate;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Lets the DEBUG and TRACE logs of the application through for requests
+ * sampled by {@link RequestLogFilter}, so the verbose traces of a few
+ * requests are kept while everything else logs at the configured level.
+ * <p>
+ * Events at INFO and above are left to the configured levels without
+ * looking at the MDC. Registered in logback-spring.xml.
+ */
+public class SampledTraceTurboFilter extends TurboFilter {
+
+    private static final String APPLICATION_LOGGERS = "com.example.backend.";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        if (level == null || level.levelInt >= Level.INFO_INT || !logger.getName().startsWith(APPLICATION_LOGGERS)) {
+            return FilterReply.NEUTRAL;
+        }
+        return "true".equals(MDC.get(RequestLog.TRACE)) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
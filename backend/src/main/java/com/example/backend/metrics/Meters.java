@@ -0,0 +1,126 @@
+package com.example.backend.metrics;
+
+import com.example.backend.service.CircuitOpenException;
+import com.example.backend.service.OverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Helpers for timing the stages of the lookup pipeline and counting their
+ * outcomes.
+ * <p>
+ * Timers publish percentile histograms so that latency percentiles can be
+ * aggregated across instances. Timed calls and counters carry an
+ * {@code outcome} tag.
+ */
+public final class Meters {
+
+    private Meters() {
+    }
+
+    /**
+     * Builds a stage timer with a percentile histogram
+     */
+    public static Timer timer(MeterRegistry registry, String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Times a Mono from subscription until it terminates or is cancelled,
+     * tagging the measurement with the way it ended
+     */
+    public static <T> Mono<T> timed(Mono<T> mono, MeterRegistry registry, String name, String... tags) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return mono.doFinally(signal -> record(registry, name, tags, outcomeOf(signal), start));
+        });
+    }
+
+    /**
+     * Times a Flux from subscription until it terminates or is cancelled
+     */
+    public static <T> Flux<T> timed(Flux<T> flux, MeterRegistry registry, String name, String... tags) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return flux.doFinally(signal -> record(registry, name, tags, outcomeOf(signal), start));
+        });
+    }
+
+    private static void record(MeterRegistry registry, String name, String[] tags, String outcome, long start) {
+        Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Increments a counter tagged with an outcome
+     */
+    public static void count(MeterRegistry registry, String name, String outcome, String... tags) {
+        Counter.builder(name)
+                .tags(Tags.of(tags).and("outcome", outcome))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Counts a failed call to an upstream, tagged with the kind of failure
+     *
+     * @param upstream libretranslate or ollama
+     */
+    public static void upstreamError(MeterRegistry registry, String upstream, Throwable error) {
+        count(registry, "ekamus.upstream.errors", outcomeOf(error), "upstream", upstream);
+    }
+
+    /**
+     * Counts an answer that had to fall back to a substitute
+     *
+     * @param reason What caused the fallback
+     */
+    public static void fallback(MeterRegistry registry, String stage, String reason) {
+        count(registry, "ekamus.fallbacks", reason, "stage", stage);
+    }
+
+    private static String outcomeOf(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            default -> "cancelled";
+        };
+    }
+
+    /**
+     * Classifies a failure as circuit_open, shed, timeout, http_4xx,
+     * http_5xx or error
+     */
+    public static String outcomeOf(Throwable error) {
+        if (error instanceof CircuitOpenException) {
+            return "circuit_open";
+        }
+        if (error instanceof OverloadedException) {
+            return "shed";
+        }
+        if (error instanceof TimeoutException || error.getCause() instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError() ? "http_4xx" : "http_5xx";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.backend.metrics;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-request breakdown of where the time went, rendered as a
+ * {@code Server-Timing} header.
+ * <p>
+ * A controller creates one per request and writes it into the Reactor
+ * context; the services add their stages as the lookup runs, each with the
+ * tier that answered it (hit, miss...). Outside such a request the context
+ * holds none and recording is a no-op.
+ */
+public final class ServerTiming {
+
+    private static final Object CONTEXT_KEY = ServerTiming.class;
+
+    // Does not record anything, for calls made outside a timed request
+    private static final ServerTiming NONE = new ServerTiming(0);
+
+    private final long start;
+    // Stages in the order they were first recorded; guarded by itself
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+    private ServerTiming(long start) {
+        this.start = start;
+    }
+
+    /**
+     * Starts timing a request
+     */
+    public static ServerTiming start() {
+        return new ServerTiming(System.nanoTime());
+    }
+
+    /**
+     * Returns the timing of the request a Reactor context belongs to, or a
+     * no-op instance if it is not timed
+     */
+    public static ServerTiming from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, NONE);
+    }
+
+    /**
+     * Makes this timing available to everything subscribed within the context
+     */
+    public Context writeTo(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    /**
+     * Times a Mono as a stage from subscription until it terminates
+     *
+     * @param description The tier that answered, e.g. hit or miss
+     */
+    public static <T> Mono<T> timed(Mono<T> mono, String stage, String description) {
+        return Mono.deferContextual(context -> {
+            ServerTiming timing = from(context);
+            if (timing == NONE) {
+                return mono;
+            }
+            long stageStart = System.nanoTime();
+            return mono.doFinally(signal -> timing.record(stage, description, System.nanoTime() - stageStart));
+        });
+    }
+
+    /**
+     * Records a stage that was measured before the Mono was built, once the
+     * Mono is subscribed within a timed request
+     */
+    public static <T> Mono<T> recorded(Mono<T> mono, String stage, String description, long nanos) {
+        return Mono.deferContextual(context -> {
+            from(context).record(stage, description, nanos);
+            return mono;
+        });
+    }
+
+    /**
+     * Adds time to a stage. Repeated stages add up; the latest non-null
+     * description is kept.
+     */
+    public void record(String stage, String description, long nanos) {
+        if (this == NONE) {
+            return;
+        }
+        synchronized (stages) {
+            Stage recorded = stages.computeIfAbsent(stage, name -> new Stage());
+            recorded.nanos += nanos;
+            if (description != null) {
+                recorded.description = description;
+            }
+        }
+    }
+
+    /**
+     * Renders the stages followed by the total time so far, e.g.
+     * {@code cache;desc="miss";dur=0.02, libretranslate;desc="miss";dur=84.1, total;dur=85.3}
+     */
+    public String header() {
+        StringBuilder header = new StringBuilder();
+        synchronized (stages) {
+            stages.forEach((name, stage) -> append(header, name, stage.description, stage.nanos));
+        }
+        append(header, "total", null, System.nanoTime() - start);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String name, String description, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name);
+        if (description != null) {
+            header.append(";desc=\"").append(description).append('"');
+        }
+        header.append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000d));
+    }
+
+    private static final class Stage {
+        private long nanos;
+        private String description;
+    }
+}
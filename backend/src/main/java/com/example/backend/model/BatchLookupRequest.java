@@ -0,0 +1,22 @@
+package com.example.backend.model;
+
+import java.util.List;
+
+public class BatchLookupRequest {
+    private List<String> words;
+
+    public BatchLookupRequest() {
+    }
+
+    public BatchLookupRequest(List<String> words) {
+        this.words = words;
+    }
+
+    public List<String> getWords() {
+        return words;
+    }
+
+    public void setWords(List<String> words) {
+        this.words = words;
+    }
+}
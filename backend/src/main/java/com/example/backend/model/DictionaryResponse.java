@@ -1,5 +1,7 @@
 package com.example.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class DictionaryResponse {
     private String malayWord;
     private String mandarinWord;
@@ -8,6 +10,26 @@ public class DictionaryResponse {
     private String pinyin;
     private boolean adjective;
 
+    // The word as typed, when the lookup was corrected to a known word
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String correctedFrom;
+
+    // The root whose entry answered the lookup of an inflected form
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String rootWord;
+
+    // Set on fast answers whose explanation is still being generated
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean enrichmentPending;
+
+    // Fetches the complete response once the explanation is ready
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String enrichmentToken;
+
+    // Set on partial answers whose explanation was shed under load
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long retryAfterSeconds;
+
     public DictionaryResponse() {
     }
 
@@ -68,4 +90,44 @@ public class DictionaryResponse {
     public void setAdjective(boolean adjective) {
         this.adjective = adjective;
     }
+
+    public String getCorrectedFrom() {
+        return correctedFrom;
+    }
+
+    public void setCorrectedFrom(String correctedFrom) {
+        this.correctedFrom = correctedFrom;
+    }
+
+    public String getRootWord() {
+        return rootWord;
+    }
+
+    public void setRootWord(String rootWord) {
+        this.rootWord = rootWord;
+    }
+
+    public Boolean getEnrichmentPending() {
+        return enrichmentPending;
+    }
+
+    public void setEnrichmentPending(Boolean enrichmentPending) {
+        this.enrichmentPending = enrichmentPending;
+    }
+
+    public String getEnrichmentToken() {
+        return enrichmentToken;
+    }
+
+    public void setEnrichmentToken(String enrichmentToken) {
+        this.enrichmentToken = enrichmentToken;
+    }
+
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(Long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.backend.model;
+
+public class ExplanationSection {
+    private String name;
+    private String content;
+
+    public ExplanationSection() {
+    }
+
+    public ExplanationSection(String name, String content) {
+        this.name = name;
+        this.content = content;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
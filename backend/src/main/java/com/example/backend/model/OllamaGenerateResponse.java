@@ -0,0 +1,148 @@
+package com.example.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A response, or one line of a streamed response, from Ollama's generate or
+ * chat endpoints
+ */
+public class OllamaGenerateResponse {
+    private String model;
+    private String response;
+    private Message message;
+    private String content;
+    private boolean done;
+
+    @JsonProperty("done_reason")
+    private String doneReason;
+
+    @JsonProperty("prompt_eval_count")
+    private long promptEvalCount;
+
+    @JsonProperty("prompt_eval_duration")
+    private long promptEvalDuration;
+
+    @JsonProperty("eval_count")
+    private long evalCount;
+
+    @JsonProperty("eval_duration")
+    private long evalDuration;
+
+    @JsonProperty("total_duration")
+    private long totalDuration;
+
+    public OllamaGenerateResponse() {
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+
+    public void setMessage(Message message) {
+        this.message = message;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+
+    public String getDoneReason() {
+        return doneReason;
+    }
+
+    public void setDoneReason(String doneReason) {
+        this.doneReason = doneReason;
+    }
+
+    public long getPromptEvalCount() {
+        return promptEvalCount;
+    }
+
+    public void setPromptEvalCount(long promptEvalCount) {
+        this.promptEvalCount = promptEvalCount;
+    }
+
+    public long getPromptEvalDuration() {
+        return promptEvalDuration;
+    }
+
+    public void setPromptEvalDuration(long promptEvalDuration) {
+        this.promptEvalDuration = promptEvalDuration;
+    }
+
+    public long getEvalCount() {
+        return evalCount;
+    }
+
+    public void setEvalCount(long evalCount) {
+        this.evalCount = evalCount;
+    }
+
+    public long getEvalDuration() {
+        return evalDuration;
+    }
+
+    public void setEvalDuration(long evalDuration) {
+        this.evalDuration = evalDuration;
+    }
+
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    public void setTotalDuration(long totalDuration) {
+        this.totalDuration = totalDuration;
+    }
+
+    public static class Message {
+        private String role;
+        private String content;
+
+        public Message() {
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public void setRole(String role) {
+            this.role = role;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public void setContent(String content) {
+            this.content = content;
+        }
+    }
+}
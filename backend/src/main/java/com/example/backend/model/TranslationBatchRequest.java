@@ -0,0 +1,67 @@
+package com.example.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class TranslationBatchRequest {
+    @JsonProperty("q")
+    private List<String> texts;
+    private String source;
+    private String target;
+    private String format;
+
+    @JsonProperty("api_key")
+    private String apiKey;
+
+    public TranslationBatchRequest() {
+    }
+
+    public TranslationBatchRequest(List<String> texts, String source, String target, String format, String apiKey) {
+        this.texts = texts;
+        this.source = source;
+        this.target = target;
+        this.format = format;
+        this.apiKey = apiKey;
+    }
+
+    public List<String> getTexts() {
+        return texts;
+    }
+
+    public void setTexts(List<String> texts) {
+        this.texts = texts;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public void setApiKey(String apiKey) {
+        this.apiKey = apiKey;
+    }
+}
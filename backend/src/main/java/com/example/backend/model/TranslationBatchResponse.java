@@ -0,0 +1,22 @@
+package com.example.backend.model;
+
+import java.util.List;
+
+public class TranslationBatchResponse {
+    private List<String> translatedText;
+
+    public TranslationBatchResponse() {
+    }
+
+    public TranslationBatchResponse(List<String> translatedText) {
+        this.translatedText = translatedText;
+    }
+
+    public List<String> getTranslatedText() {
+        return translatedText;
+    }
+
+    public void setTranslatedText(List<String> translatedText) {
+        this.translatedText = translatedText;
+    }
+}
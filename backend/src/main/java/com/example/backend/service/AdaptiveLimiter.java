@@ -0,0 +1,316 @@
+package com.example.backend.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how many calls run against a backend at the same time, adapting the
+ * limit to the latency the backend shows.
+ * <p>
+ * The limit follows AIMD: it grows by one call per limit's worth of fast,
+ * fully used completions, shrinks by {@code latencyBackoff} when a call takes
+ * more than {@code tolerance} times the fastest recent latency, and by half
+ * when a call fails. Calls beyond the limit wait in a bounded FIFO queue for
+ * at most {@code maxWait}; when the queue is full, or the wait runs out, they
+ * fail at once with {@link OverloadedException}.
+ */
+final class AdaptiveLimiter {
+
+    private static final double ERROR_BACKOFF = 0.5;
+    // Lets the fastest latency drift up by 1% per sample, so it follows a slower backend
+    private static final double MIN_LATENCY_DRIFT = 1.01;
+    private static final double AVERAGE_WEIGHT = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final double tolerance;
+    private final double latencyBackoff;
+
+    // Guarded by this
+    private double limit;
+    private int inFlight;
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+    private double minLatencyNanos = Double.NaN;
+    private double averageLatencyNanos = Double.NaN;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong queuedTotal = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong increases = new AtomicLong();
+    private final AtomicLong decreases = new AtomicLong();
+
+    /**
+     * @param initialLimit   Concurrent calls allowed before any latency is seen
+     * @param minLimit       Lower bound of the limit
+     * @param maxLimit       Upper bound of the limit
+     * @param maxQueue       Calls allowed to wait for a slot
+     * @param maxWait        Longest time a call waits for a slot
+     * @param tolerance      Latency, as a multiple of the fastest recent one,
+     *                       above which the limit is lowered
+     * @param latencyBackoff Factor applied to the limit on a slow call
+     */
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue, Duration maxWait, double tolerance,
+            double latencyBackoff) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWait = maxWait;
+        this.tolerance = tolerance;
+        this.latencyBackoff = latencyBackoff;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Runs a call once a slot is free, and feeds its latency back into the
+     * limit
+     *
+     * @param call  The call, subscribed to only once it holds a slot
+     * @param units Number of work items the call carries, e.g. the words of a
+     *              packed prompt; its latency is compared per unit
+     */
+    <T> Mono<T> limit(Mono<T> call, int units) {
+        return acquire().flatMap(permit -> call
+                .doOnSuccess(value -> permit.succeeded(units))
+                .doOnError(error -> permit.failed())
+                .doFinally(signal -> permit.release()));
+    }
+
+    /**
+     * Runs a streamed call once a slot is free; the slot is held until the
+     * stream ends
+     */
+    <T> Flux<T> limitMany(Flux<T> call, int units) {
+        return acquire().flatMapMany(permit -> call
+                .doOnComplete(() -> permit.succeeded(units))
+                .doOnError(error -> permit.failed())
+                .doFinally(signal -> permit.release()));
+    }
+
+    /**
+     * Runs a call only if a slot is free right now, without queueing, for
+     * optional work such as a hedged request that must not hold up the calls
+     * waiting their turn. The slot is taken at once, so the returned call must
+     * be subscribed to.
+     *
+     * @return The call holding the slot, or null if the limiter is saturated
+     */
+    <T> Mono<T> limitIfFree(Mono<T> call, int units) {
+        Permit permit;
+        synchronized (this) {
+            if (!queue.isEmpty() || inFlight >= (int) limit) {
+                return null;
+            }
+            permit = grant();
+        }
+        return call
+                .doOnSuccess(value -> permit.succeeded(units))
+                .doOnError(error -> permit.failed())
+                .doFinally(signal -> permit.release());
+    }
+
+    private Mono<Permit> acquire() {
+        Mono<Permit> permit = Mono.create(sink -> {
+            Waiter waiter;
+            synchronized (this) {
+                if (queue.isEmpty() && inFlight < (int) limit) {
+                    sink.success(grant());
+                    return;
+                }
+                if (queue.size() >= maxQueue) {
+                    rejected.incrementAndGet();
+                    sink.error(new OverloadedException("Too many requests waiting for the model", retryAfter()));
+                    return;
+                }
+                waiter = new Waiter(sink);
+                queue.addLast(waiter);
+                queuedTotal.incrementAndGet();
+            }
+            sink.onCancel(() -> abandon(waiter));
+        });
+        return permit.timeout(maxWait, Mono.defer(() -> {
+            timedOut.incrementAndGet();
+            return Mono.<Permit>error(new OverloadedException(
+                    "Timed out after " + maxWait.toMillis() + " ms waiting for the model", retryAfter()));
+        }));
+    }
+
+    // Called holding this
+    private Permit grant() {
+        inFlight++;
+        acquired.incrementAndGet();
+        return new Permit(System.nanoTime(), inFlight >= (int) limit);
+    }
+
+    private void abandon(Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            if (queue.remove(waiter)) {
+                return;
+            }
+            granted = waiter.granted;
+        }
+        // Granted while being cancelled, so the permit may never reach the caller
+        if (granted != null) {
+            granted.release();
+        }
+    }
+
+    private void onRelease() {
+        synchronized (this) {
+            inFlight--;
+        }
+        drain();
+    }
+
+    /**
+     * Hands free slots to waiting calls, in arrival order
+     */
+    private void drain() {
+        while (true) {
+            Waiter next;
+            Permit permit;
+            synchronized (this) {
+                if (queue.isEmpty() || inFlight >= (int) limit) {
+                    return;
+                }
+                next = queue.pollFirst();
+                permit = grant();
+                next.granted = permit;
+            }
+            // A waiter cancelled meanwhile hands the slot back through abandon
+            next.sink.success(permit);
+        }
+    }
+
+    private synchronized void onSample(long latencyNanos, int units, boolean saturated) {
+        double perUnit = latencyNanos / (double) Math.max(1, units);
+        minLatencyNanos = Double.isNaN(minLatencyNanos) ? perUnit
+                : Math.min(perUnit, minLatencyNanos * MIN_LATENCY_DRIFT);
+        averageLatencyNanos = Double.isNaN(averageLatencyNanos) ? latencyNanos
+                : averageLatencyNanos + AVERAGE_WEIGHT * (latencyNanos - averageLatencyNanos);
+
+        if (perUnit > minLatencyNanos * tolerance) {
+            decrease(latencyBackoff);
+        } else if (saturated && limit < maxLimit) {
+            // Only grow a limit that was actually reached; the caller's release
+            // then hands any new slot to a waiting call
+            limit = Math.min(maxLimit, limit + 1 / limit);
+            increases.incrementAndGet();
+        }
+    }
+
+    private synchronized void onFailure() {
+        decrease(ERROR_BACKOFF);
+    }
+
+    // Called holding this
+    private void decrease(double factor) {
+        double lowered = Math.max(minLimit, limit * factor);
+        if (lowered < limit) {
+            limit = lowered;
+            decreases.incrementAndGet();
+        }
+    }
+
+    /**
+     * Estimates when a rejected caller may retry: the time the queue ahead of
+     * it takes to drain at the current limit
+     */
+    synchronized Duration retryAfter() {
+        if (Double.isNaN(averageLatencyNanos)) {
+            return Duration.ofSeconds(1);
+        }
+        double nanos = averageLatencyNanos * (queue.size() + 1) / Math.max(1, (int) limit);
+        return Duration.ofSeconds(Math.max(1, Math.min(300, (long) Math.ceil(nanos / 1e9))));
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Describes the limiter for the stats endpoint
+     */
+    synchronized Map<String, Object> describe() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("limit", (int) limit);
+        stats.put("exactLimit", limit);
+        stats.put("minLimit", minLimit);
+        stats.put("maxLimit", maxLimit);
+        stats.put("inFlight", inFlight);
+        stats.put("queued", queue.size());
+        stats.put("maxQueue", maxQueue);
+        stats.put("acquired", acquired.get());
+        stats.put("queuedTotal", queuedTotal.get());
+        stats.put("rejected", rejected.get());
+        stats.put("timedOut", timedOut.get());
+        stats.put("increases", increases.get());
+        stats.put("decreases", decreases.get());
+        stats.put("minLatencyMillisPerUnit", Double.isNaN(minLatencyNanos) ? 0d : minLatencyNanos / 1e6);
+        stats.put("averageLatencyMillis", Double.isNaN(averageLatencyNanos) ? 0d : averageLatencyNanos / 1e6);
+        stats.put("retryAfterSeconds", retryAfter().toSeconds());
+        return stats;
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        // Guarded by the limiter
+        private Permit granted;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * One slot, released exactly once however the call ends
+     */
+    private final class Permit {
+        private final long start;
+        private final boolean saturated;
+        private final AtomicBoolean sampled = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long start, boolean saturated) {
+            this.start = start;
+            this.saturated = saturated;
+        }
+
+        void succeeded(int units) {
+            if (sampled.compareAndSet(false, true)) {
+                onSample(System.nanoTime() - start, units, saturated);
+            }
+        }
+
+        void failed() {
+            if (sampled.compareAndSet(false, true)) {
+                onFailure();
+            }
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                onRelease();
+            }
+        }
+    }
+}
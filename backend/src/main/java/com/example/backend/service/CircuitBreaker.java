@@ -0,0 +1,220 @@
+package com.example.backend.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling an upstream that keeps failing.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the breaker opens and
+ * calls fail at once with {@link CircuitOpenException}. Once
+ * {@code openDuration} has passed it lets a single probe through: a
+ * successful probe closes the breaker, a failed one opens it again. Calls
+ * shed with {@link OverloadedException} say nothing about the upstream and
+ * are not counted.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final LongSupplier nanoClock;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probing;
+
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong opened = new AtomicLong();
+
+    /**
+     * @param name             Upstream name used in messages and stats
+     * @param failureThreshold Consecutive failures that open the breaker
+     * @param openDuration     Time the breaker stays open before probing
+     */
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Runs a call unless the breaker is open, recording its outcome
+     */
+    <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                return Mono.error(rejection());
+            }
+            Outcome outcome = new Outcome();
+            return call
+                    .doOnSuccess(value -> outcome.succeeded())
+                    .doOnError(outcome::failed)
+                    .doOnCancel(outcome::abandoned);
+        });
+    }
+
+    /**
+     * Runs a streamed call unless the breaker is open; the stream counts as
+     * a success once it completes
+     */
+    <T> Flux<T> protectMany(Flux<T> call) {
+        return Flux.defer(() -> {
+            if (!tryAcquire()) {
+                return Flux.error(rejection());
+            }
+            Outcome outcome = new Outcome();
+            return call
+                    .doOnComplete(outcome::succeeded)
+                    .doOnError(outcome::failed)
+                    .doOnCancel(outcome::abandoned);
+        });
+    }
+
+    private synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt < openDuration.toNanos()) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probing = true;
+                return true;
+            default:
+                if (probing) {
+                    return false;
+                }
+                probing = true;
+                return true;
+        }
+    }
+
+    /**
+     * Checks, without taking a slot, whether a call would be let through
+     */
+    synchronized boolean isAvailable() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return nanoClock.getAsLong() - openedAt >= openDuration.toNanos();
+            default:
+                return !probing;
+        }
+    }
+
+    private CircuitOpenException rejection() {
+        rejected.incrementAndGet();
+        return new CircuitOpenException(name + " is unavailable, not calling it for now", retryAfter());
+    }
+
+    private synchronized void onSuccess() {
+        successes.incrementAndGet();
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            probing = false;
+        }
+    }
+
+    private synchronized void onFailure() {
+        failures.incrementAndGet();
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            probing = false;
+            opened.incrementAndGet();
+        }
+    }
+
+    private synchronized void onAbandoned() {
+        // A probe that ended without an answer lets the next call probe instead
+        if (state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+
+    /**
+     * Returns how long until the breaker probes the upstream again, at least
+     * one second
+     */
+    synchronized Duration retryAfter() {
+        if (state != State.OPEN) {
+            return Duration.ofSeconds(1);
+        }
+        long remaining = openDuration.toNanos() - (nanoClock.getAsLong() - openedAt);
+        return Duration.ofSeconds(Math.max(1, (long) Math.ceil(remaining / 1e9)));
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Describes the breaker for the stats endpoint
+     */
+    synchronized Map<String, Object> describe() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name());
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("failureThreshold", failureThreshold);
+        stats.put("openSeconds", openDuration.toSeconds());
+        stats.put("successes", successes.get());
+        stats.put("failures", failures.get());
+        stats.put("rejected", rejected.get());
+        stats.put("opened", opened.get());
+        return stats;
+    }
+
+    /**
+     * Records the first way a call ends
+     */
+    private final class Outcome {
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        void succeeded() {
+            if (recorded.compareAndSet(false, true)) {
+                onSuccess();
+            }
+        }
+
+        void failed(Throwable error) {
+            if (recorded.compareAndSet(false, true)) {
+                if (error instanceof OverloadedException) {
+                    onAbandoned();
+                } else {
+                    onFailure();
+                }
+            }
+        }
+
+        void abandoned() {
+            if (recorded.compareAndSet(false, true)) {
+                onAbandoned();
+            }
+        }
+    }
+}
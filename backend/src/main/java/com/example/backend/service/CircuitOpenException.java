@@ -0,0 +1,13 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of calling an upstream whose circuit breaker is open
+ */
+public class CircuitOpenException extends OverloadedException {
+
+    public CircuitOpenException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
@@ -1,17 +1,42 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.Caches;
+import com.example.backend.cache.ExplanationStore;
+import com.example.backend.logging.RequestLog;
+import com.example.backend.metrics.Meters;
+import com.example.backend.metrics.ServerTiming;
 import com.example.backend.model.AiResponse;
+import com.example.backend.model.ExplanationSection;
+import com.example.backend.model.OllamaGenerateResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,12 +45,59 @@ import org.slf4j.LoggerFactory;
 public class DeepseekAiService {
 
     private static final Logger logger = LoggerFactory.getLogger(DeepseekAiService.class);
+    private static final String SYSTEM_PROMPT = "You are a language expert with superior fluency in both Malay (Bahasa Malaysia/Melayu) and Mandarin Chinese. Always respond directly with the final answer in the exact format requested. The explanations must always be written in proper Malay language. IMPORTANT: DO NOT USE ANY MARKDOWN FORMATTING IN YOUR RESPONSE. Avoid using any asterisks (*), underscores (_), backticks (`), tildes (~), or any other formatting characters in your text. Provide plain, unformatted text only. Never use <think> tags or show your internal reasoning process. You have extensive knowledge of everyday Malay words like 'makan', 'tidur', 'cantik', 'muram', 'layu', and 'gerun' and their Mandarin Chinese equivalents.";
+
     private final WebClient webClient;
-    private final Map<String, AiResponse> cache = new ConcurrentHashMap<>();
+    private final ExplanationStore explanationStore;
+    private final MeterRegistry meterRegistry;
+    private final Timer promptTimer;
+    private final Timer parseTimer;
+    private final StatsCounter cacheStats = new ConcurrentStatsCounter();
+    private Cache<String, AiResponse> cache;
+
+    // Generations currently running against Ollama, shared by concurrent misses
+    // for the same key
+    private final Map<String, Mono<AiResponse>> inFlightRequests = new ConcurrentHashMap<>();
+    // Time spent parsing the reply of each running generation, in nanoseconds,
+    // reported to the requests waiting on it
+    private final Map<String, Long> parseDurations = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+
+    // Misses waiting to be explained together in one packed generation, one
+    // pack per language
+    private final Map<String, PendingPack> openPacks = new HashMap<>();
+    private final GenerationStats singleStats = new GenerationStats();
+    private final GenerationStats packedStats = new GenerationStats();
+    private final AtomicLong packedFallbacks = new AtomicLong();
+
+    // Bounds the generations running against Ollama at the same time
+    private AdaptiveLimiter limiter;
+    // Ollama backends, each behind its own circuit breaker
+    private OllamaBackendPool backends;
+
+    // Fallback answers for words whose generation failed recently
+    private Cache<String, AiResponse> recentFailures;
+    private final AtomicLong negativeHits = new AtomicLong();
 
     @Value("${deepseek.api.url}")
     private String deepseekApiUrl;
 
+    // Backends as url|model|model..., replacing deepseek.api.url when set
+    @Value("${ollama.backends:}")
+    private List<String> backendDefinitions = List.of();
+
+    @Value("${ollama.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${ollama.hedging.percentile:0.95}")
+    private double hedgingPercentile;
+
+    @Value("${ollama.hedging.min-samples:20}")
+    private int hedgingMinSamples;
+
+    @Value("${ollama.hedging.min-delay-ms:1000}")
+    private long hedgingMinDelayMillis;
+
     @Value("${deepseek.api.key}")
     private String deepseekApiKey;
 
@@ -38,126 +110,402 @@ public class DeepseekAiService {
     @Value("${app.cache.enabled:true}")
     private boolean cacheEnabled;
 
-    public DeepseekAiService(WebClient webClient) {
+    @Value("${app.cache.ai.max-bytes:67108864}")
+    private long cacheMaxBytes;
+
+    @Value("${app.cache.ai.ttl-hours:720}")
+    private long cacheTtlHours;
+
+    // Off when pinyin is filled in locally, which saves generating it for every word
+    @Value("${ollama.prompt.include-pronunciation:false}")
+    private boolean includePronunciation;
+
+    @Value("${ollama.packing.enabled:true}")
+    private boolean packingEnabled;
+
+    @Value("${ollama.packing.window-ms:25}")
+    private long packingWindowMillis;
+
+    @Value("${ollama.packing.max-words:4}")
+    private int packingMaxWords;
+
+    @Value("${ollama.limiter.enabled:true}")
+    private boolean limiterEnabled;
+
+    @Value("${ollama.limiter.initial-limit:2}")
+    private int limiterInitialLimit;
+
+    @Value("${ollama.limiter.min-limit:1}")
+    private int limiterMinLimit;
+
+    @Value("${ollama.limiter.max-limit:8}")
+    private int limiterMaxLimit;
+
+    @Value("${ollama.limiter.max-queue:32}")
+    private int limiterMaxQueue;
+
+    @Value("${ollama.limiter.max-wait-ms:30000}")
+    private long limiterMaxWaitMillis;
+
+    @Value("${ollama.limiter.latency-tolerance:2.0}")
+    private double limiterTolerance;
+
+    @Value("${ollama.limiter.latency-backoff:0.9}")
+    private double limiterBackoff;
+
+    @Value("${ollama.breaker.failure-threshold:3}")
+    private int breakerFailureThreshold;
+
+    @Value("${ollama.breaker.open-seconds:30}")
+    private long breakerOpenSeconds;
+
+    @Value("${ollama.negative-cache.ttl-seconds:60}")
+    private long negativeTtlSeconds;
+
+    public DeepseekAiService(@Qualifier("ollamaWebClient") WebClient webClient, ExplanationStore explanationStore,
+            MeterRegistry meterRegistry) {
         this.webClient = webClient;
+        this.explanationStore = explanationStore;
+        this.meterRegistry = meterRegistry;
+        this.promptTimer = Meters.timer(meterRegistry, "ekamus.prompt.build", "Building an Ollama prompt");
+        this.parseTimer = Meters.timer(meterRegistry, "ekamus.response.parse",
+                "Parsing and cleaning up a complete model response");
         logger.info("DeepseekAiService initialized with WebClient: {}", webClient);
     }
 
+    @PostConstruct
+    void initCache() {
+        cache = Caches.newBoundedCache(cacheMaxBytes, Duration.ofHours(cacheTtlHours), Caches::weightOf,
+                cacheStats);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "explanations");
+        logger.info("AI cache bounded to {} bytes with a TTL of {} hours", cacheMaxBytes, cacheTtlHours);
+        limiter = new AdaptiveLimiter(limiterInitialLimit, limiterMinLimit, limiterMaxLimit, limiterMaxQueue,
+                Duration.ofMillis(limiterMaxWaitMillis), limiterTolerance, limiterBackoff);
+        List<OllamaBackendPool.Backend> parsed = OllamaBackendPool.parse(backendDefinitions, deepseekApiUrl,
+                url -> new CircuitBreaker("Ollama at " + url, breakerFailureThreshold,
+                        Duration.ofSeconds(breakerOpenSeconds)));
+        backends = new OllamaBackendPool(parsed, hedgingEnabled, hedgingPercentile, hedgingMinSamples,
+                Duration.ofMillis(hedgingMinDelayMillis), limiterEnabled ? limiter : null);
+        logger.info("Ollama backends: {}", backends.describeBackends());
+        recentFailures = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .build();
+    }
+
+    /**
+     * Runs a call to Ollama under the concurrency limiter, on the least loaded
+     * backend hosting the model. Fails before queueing when no such backend
+     * is up.
+     *
+     * @param words Number of words the call explains
+     * @param call  Builds the request for a backend URL
+     */
+    private <T> Mono<T> limited(String modelName, int words, Function<String, Mono<T>> call) {
+        Mono<T> routed = Meters.timed(backends.execute(modelName, words, call), meterRegistry,
+                "ekamus.ollama.generation", "mode", words > 1 ? "packed" : "single");
+        return Mono.defer(() -> backends.checkAvailable(modelName))
+                .then(limiterEnabled ? limiter.limit(routed, words) : routed);
+    }
+
     public Mono<AiResponse> generateExplanation(String word, String language) {
+        // Often called on the thread that finished the translation, so the
+        // logging decisions of the request come from the Reactor context
+        return Mono.deferContextual(context -> {
+            RequestLog requestLog = RequestLog.from(context);
+            return requestLog.call(() -> loadExplanation(word, language, requestLog));
+        });
+    }
+
+    /**
+     * Answers from the caches, joins the generation in flight for the word or
+     * starts one. Not overridable, so that retries are not post-processed twice.
+     */
+    private Mono<AiResponse> loadExplanation(String word, String language, RequestLog requestLog) {
         String cacheKey = language + ":" + word;
         logger.debug("Generating explanation for: {} in {}", word, language);
 
         // Check if cache is enabled and if we have this word in our cache
-        if (cacheEnabled && cache.containsKey(cacheKey)) {
-            logger.info("Cache hit for word '{}' in {}", word, language);
-            return Mono.just(cache.get(cacheKey));
+        if (cacheEnabled) {
+            AiResponse cached = cache.getIfPresent(cacheKey);
+            if (cached != null) {
+                logger.debug("Cache hit for word '{}' in {}", word, language);
+                return ServerTiming.timed(Mono.just(cached), "ollama", "hit");
+            }
+
+            // Fall back to the persistent tier before generating anything
+            long storeStart = System.nanoTime();
+            AiResponse stored = explanationStore.get(cacheKey);
+            Meters.count(meterRegistry, "ekamus.store.requests", stored != null ? "hit" : "miss");
+            if (stored != null) {
+                cache.put(cacheKey, stored);
+                cacheStats.recordLoadSuccess(System.nanoTime() - storeStart);
+                logger.debug("Persistent store hit for word '{}' in {}", word, language);
+                return ServerTiming.recorded(Mono.just(stored), "ollama", "store", System.nanoTime() - storeStart);
+            }
+        }
+
+        // Repeat the fallback of a generation that just failed instead of retrying at once
+        AiResponse failed = recentFailures.getIfPresent(cacheKey);
+        if (failed != null) {
+            negativeHits.incrementAndGet();
+            Meters.fallback(meterRegistry, "explanation", "recent_failure");
+            logger.debug("Recent failure for word '{}' in {}, answering with its fallback", word, language);
+            return ServerTiming.timed(Mono.just(failed), "ollama", "recent-failure");
+        }
+
+        Mono<AiResponse> inFlight = inFlightRequests.get(cacheKey);
+        if (inFlight == null) {
+            // Share one generation between all concurrent callers. The shared Mono
+            // cancels the upstream call only once every subscriber has cancelled,
+            // and removes itself from the in-flight map however it terminates.
+            AtomicReference<Mono<AiResponse>> self = new AtomicReference<>();
+            Mono<AiResponse> shared = generate(word, language, cacheKey, requestLog)
+                    .doFinally(signal -> {
+                        inFlightRequests.remove(cacheKey, self.get());
+                        parseDurations.remove(cacheKey);
+                    })
+                    .share();
+            self.set(shared);
+
+            inFlight = inFlightRequests.putIfAbsent(cacheKey, shared);
+            if (inFlight == null) {
+                return timedGeneration(shared, cacheKey, "miss");
+            }
+        }
+
+        coalescedRequests.incrementAndGet();
+        logger.debug("Joining in-flight generation for word '{}' in {}", word, language);
+        // A joined stream that was cancelled completes empty; generate it anew
+        return timedGeneration(inFlight, cacheKey, "joined")
+                .switchIfEmpty(Mono.defer(() -> loadExplanation(word, language, requestLog)));
+    }
+
+    /**
+     * Reports the wait for a generation, and the time spent parsing its reply,
+     * to the Server-Timing of the request
+     */
+    private Mono<AiResponse> timedGeneration(Mono<AiResponse> generation, String cacheKey, String description) {
+        return ServerTiming.timed(Mono.deferContextual(context -> generation.doOnNext(aiResponse -> {
+            Long parseNanos = parseDurations.get(cacheKey);
+            if (parseNanos != null) {
+                ServerTiming.from(context).record("parse", null, parseNanos);
+            }
+        })), "ollama", description);
+    }
+
+    /**
+     * Generates an explanation for a miss, either on its own or packed together
+     * with the other misses of the same language that arrive within
+     * {@code ollama.packing.window-ms}. A miss arriving while no other
+     * generation is in flight has nothing to be packed with and is sent at
+     * once rather than waiting out the window.
+     */
+    private Mono<AiResponse> generate(String word, String language, String cacheKey, RequestLog requestLog) {
+        if (!packingEnabled || packingMaxWords < 2) {
+            return requestExplanation(word, language, cacheKey, requestLog);
+        }
+        return Mono.defer(() -> enqueuePacked(word, language, cacheKey, requestLog));
+    }
+
+    private Mono<AiResponse> enqueuePacked(String word, String language, String cacheKey, RequestLog requestLog) {
+        PendingPack full = null;
+        Sinks.One<AiResponse> sink;
+        synchronized (openPacks) {
+            PendingPack pack = openPacks.get(language);
+            // The word itself is registered in flight already
+            if (pack == null && inFlightRequests.size() <= 1) {
+                return requestExplanation(word, language, cacheKey, requestLog);
+            }
+            if (pack == null) {
+                pack = new PendingPack(language);
+                openPacks.put(language, pack);
+                PendingPack scheduled = pack;
+                Schedulers.parallel().schedule(() -> closePack(scheduled), packingWindowMillis, TimeUnit.MILLISECONDS);
+            }
+            sink = pack.entries.computeIfAbsent(word,
+                    w -> new PackedEntry(cacheKey, Sinks.one(), requestLog)).sink();
+            if (pack.entries.size() >= packingMaxWords) {
+                openPacks.remove(language);
+                full = pack;
+            }
+        }
+        if (full != null) {
+            dispatchPack(full);
+        }
+        return sink.asMono();
+    }
+
+    private void closePack(PendingPack pack) {
+        synchronized (openPacks) {
+            if (!openPacks.remove(pack.language, pack)) {
+                return; // Already sent because it filled up
+            }
+        }
+        dispatchPack(pack);
+    }
+
+    /**
+     * Explains every word of a closed pack with one generation. Words missing
+     * from the packed reply, and all words if the generation fails, are
+     * retried as single generations. The pack logs as its most verbose
+     * request, since it is sent from a scheduler thread or from the thread of
+     * whichever request filled it.
+     */
+    private void dispatchPack(PendingPack pack) {
+        RequestLog requestLog = RequestLog.mostVerbose(
+                pack.entries.values().stream().map(PackedEntry::requestLog).toList());
+        requestLog.run(() -> sendPack(pack, requestLog));
+    }
+
+    private void sendPack(PendingPack pack, RequestLog requestLog) {
+        if (pack.entries.size() == 1) {
+            Map.Entry<String, PackedEntry> entry = pack.entries.entrySet().iterator().next();
+            forward(requestExplanation(entry.getKey(), pack.language, entry.getValue().cacheKey(),
+                    entry.getValue().requestLog()), entry.getValue().sink());
+            return;
+        }
+
+        long loadStart = System.nanoTime();
+        List<String> words = new ArrayList<>(pack.entries.keySet());
+        String modelName = resolveModelName();
+        Map<String, Object> requestBody = buildRequestBody(modelName,
+                promptTimer.record(() -> generatePackedPrompt(words, pack.language)), false,
+                maxTokens * words.size());
+        logger.info("Cache miss for {} words in {} - calling DeepSeek API with a packed prompt: {}",
+                words.size(), pack.language, words);
+        if (requestLog.logsPayloads()) {
+            logger.info("Request body for {}: {}", words, requestBody);
         }
 
+        limited(modelName, words.size(), url -> webClient.post()
+                .uri(url)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(OllamaGenerateResponse.class)
+                .timeout(Duration.ofMinutes(5)))
+                .map(response -> {
+                    packedStats.record(words.size(), response, System.nanoTime() - loadStart);
+                    String generatedText = extractGeneratedText(response, modelName);
+                    if (requestLog.logsPayloads()) {
+                        requestLog.run(() -> logger.info("Generated text for {}: {}", words, generatedText));
+                    }
+                    long parseStart = System.nanoTime();
+                    List<AiResponse> parsed = SectionParser.parsePacked(generatedText, words.size());
+                    long parseNanos = System.nanoTime() - parseStart;
+                    parseTimer.record(parseNanos, TimeUnit.NANOSECONDS);
+                    pack.entries.values().forEach(entry -> parseDurations.put(entry.cacheKey(), parseNanos));
+                    return parsed;
+                })
+                .subscribe(parsed -> requestLog.run(() -> {
+                    for (int i = 0; i < words.size(); i++) {
+                        String word = words.get(i);
+                        PackedEntry entry = pack.entries.get(word);
+                        AiResponse aiResponse = parsed.get(i);
+                        if (aiResponse != null) {
+                            cacheGenerated(entry.cacheKey(), aiResponse, loadStart);
+                            entry.sink().tryEmitValue(aiResponse);
+                        } else {
+                            logger.warn("Packed reply has no entry for '{}', generating it on its own", word);
+                            packedFallbacks.incrementAndGet();
+                            Meters.fallback(meterRegistry, "explanation", "packed_retry");
+                            forward(requestExplanation(word, pack.language, entry.cacheKey(), entry.requestLog()),
+                                    entry.sink());
+                        }
+                    }
+                }), error -> requestLog.run(() -> {
+                    Meters.upstreamError(meterRegistry, "ollama", error);
+                    if (error instanceof OverloadedException) {
+                        // Shed as a whole; retrying word by word would only queue more
+                        logger.warn("Packed generation for {} rejected: {}", words, error.getMessage());
+                        pack.entries.values().forEach(entry -> entry.sink().tryEmitError(error));
+                        return;
+                    }
+                    logger.error("Packed generation for {} failed, generating each word on its own: {}",
+                            words, error.getMessage());
+                    packedFallbacks.addAndGet(words.size());
+                    words.forEach(word -> Meters.fallback(meterRegistry, "explanation", "packed_retry"));
+                    pack.entries.forEach((word, entry) ->
+                            forward(requestExplanation(word, pack.language, entry.cacheKey(), entry.requestLog()),
+                                    entry.sink()));
+                }));
+    }
+
+    private static void forward(Mono<AiResponse> source, Sinks.One<AiResponse> sink) {
+        source.subscribe(sink::tryEmitValue, sink::tryEmitError, sink::tryEmitEmpty);
+    }
+
+    /**
+     * Generates the explanation of one word
+     *
+     * @param requestLog The logging decisions of the request, restored in the
+     *                   callbacks that run on Reactor threads
+     */
+    private Mono<AiResponse> requestExplanation(String word, String language, String cacheKey,
+            RequestLog requestLog) {
+        long loadStart = System.nanoTime();
+
         logger.info("Cache miss for word '{}' in {} - calling DeepSeek API", word, language);
-        String prompt = generatePrompt(word, language);
+        String prompt = promptTimer.record(() -> generatePrompt(word, language));
 
         logger.debug("Sending request to DeepSeek API for word: {}", word);
-        logger.debug("API URL: {}", deepseekApiUrl);
-
-        // Use the model name from application.properties via deepseekApiKey
-        // This allows us to easily change the model without changing the code
-        String modelName = deepseekApiKey.equals("not-needed-for-ollama") ? "gpt-oss:20b" : deepseekApiKey;
-        logger.debug("Using model: {}", modelName);
 
-        // For Ollama completions API - using the direct completion endpoint format with
-        // optimized parameters
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", modelName);
-        requestBody.put("prompt", prompt);
-        requestBody.put("stream", false);
-        requestBody.put("temperature", temperature);
-        requestBody.put("max_tokens", maxTokens);
-        requestBody.put("system",
-                "You are a language expert with superior fluency in both Malay (Bahasa Malaysia/Melayu) and Mandarin Chinese. Always respond directly with the final answer in the exact format requested. The explanations must always be written in proper Malay language. IMPORTANT: DO NOT USE ANY MARKDOWN FORMATTING IN YOUR RESPONSE. Avoid using any asterisks (*), underscores (_), backticks (`), tildes (~), or any other formatting characters in your text. Provide plain, unformatted text only. Never use <think> tags or show your internal reasoning process. You have extensive knowledge of everyday Malay words like 'makan', 'tidur', 'cantik', 'muram', 'layu', and 'gerun' and their Mandarin Chinese equivalents.");
+        String modelName = resolveModelName();
+        Map<String, Object> requestBody = buildRequestBody(modelName, prompt, false, maxTokens);
 
-        // Using the API URL as specified in properties
-        String apiUrl = deepseekApiUrl;
+        // The backend is picked per request from ollama.backends, or deepseek.api.url
+        String apiUrl = backendDescription();
 
-        logger.debug("Final API URL: {}", apiUrl);
-        logger.debug("Sending request to: {}", apiUrl);
-        logger.debug("Request body: {}", requestBody);
+        if (requestLog.logsPayloads()) {
+            logger.info("Request body for '{}': {}", word, requestBody);
+        }
 
-        return webClient.post()
-                .uri(apiUrl)
+        return limited(modelName, 1, url -> webClient.post()
+                .uri(url)
                 // No authorization header needed for local Ollama
                 .bodyValue(requestBody)
                 .retrieve()
-                .bodyToMono(Map.class)
+                .bodyToMono(OllamaGenerateResponse.class)
                 // Add a timeout specifically for this request
                 .timeout(java.time.Duration.ofMinutes(5), Mono.fromCallable(() -> {
                     logger.error("Request to Ollama API timed out after 5 minutes");
                     throw new RuntimeException("Request to Ollama API timed out. LLM inference may require more time.");
-                }))
+                })))
                 .doOnNext(response -> {
-                    logger.debug("Received DeepSeek API response: {}", response);
+                    requestLog.run(() -> logger.debug(
+                            "Received DeepSeek API response from model {} (done: {}, reason: {})",
+                            response.getModel(), response.isDone(), response.getDoneReason()));
+                    singleStats.record(1, response, System.nanoTime() - loadStart);
                 })
                 .doOnError(error -> {
                     logger.error("Error during API call to {}: {}", apiUrl, error.getMessage());
                     if (error.getCause() != null) {
                         logger.error("Caused by: {}", error.getCause().getMessage());
                     }
-                    logger.error("Stack trace:", error);
                 })
-                .map(response -> {
+                .map(response -> requestLog.call(() -> {
                     try {
-                        // Log the full response structure for debugging
-                        logger.debug("Full API response structure: {}", response.keySet());
+                        String generatedText = extractGeneratedText(response, modelName);
 
-                        String generatedText = null;
-
-                        // Check for response format: Ollama v0.1.x format
-                        if (response.containsKey("response")) {
-                            generatedText = (String) response.get("response");
-                        }
-                        // Check for response format: Ollama chat completion format
-                        else if (response.containsKey("message")) {
-                            @SuppressWarnings("unchecked")
-                            Map<String, Object> responseMessage = (Map<String, Object>) response.get("message");
-                            if (responseMessage != null) {
-                                generatedText = (String) responseMessage.get("content");
-                            }
-                        }
-                        // Check for response format: Older Ollama completion format
-                        else if (response.containsKey("content")) {
-                            generatedText = (String) response.get("content");
-                        }
-
-                        // Check if response is empty
-                        if ((generatedText == null || generatedText.isEmpty()) && response.containsKey("done_reason")) {
-                            String doneReason = (String) response.get("done_reason");
-                            if ("load".equals(doneReason)) {
-                                // The model is still loading
-                                throw new RuntimeException("The model '" + modelName
-                                        + "' is still loading. Please try again in a few moments.");
-                            } else {
-                                throw new RuntimeException("No content returned from API. Reason: " + doneReason
-                                        + ". Response: " + response);
-                            }
+                        if (requestLog.logsPayloads()) {
+                            logger.info("Generated text for '{}': {}", word, generatedText);
                         }
 
-                        if (generatedText == null || generatedText.isEmpty()) {
-                            throw new RuntimeException("No content found in API response: " + response);
-                        }
-
-                        logger.debug("Generated text from DeepSeek: {}", generatedText);
-
                         // Parse the generated text to extract explanation and examples
+                        long parseStart = System.nanoTime();
                         AiResponse aiResponse = parseGeneratedText(generatedText);
+                        long parseNanos = System.nanoTime() - parseStart;
+                        parseTimer.record(parseNanos, TimeUnit.NANOSECONDS);
+                        parseDurations.put(cacheKey, parseNanos);
 
                         // Store in cache for future requests if caching is enabled
-                        if (cacheEnabled) {
-                            cache.put(language + ":" + word, aiResponse);
-                            logger.info("Cached response for '{}' in {}", word, language);
-                        }
+                        cacheGenerated(cacheKey, aiResponse, loadStart);
 
                         return aiResponse;
                     } catch (Exception e) {
                         logger.error("Error parsing DeepSeek response: {}", e.getMessage(), e);
+                        cacheStats.recordLoadFailure(System.nanoTime() - loadStart);
+                        Meters.fallback(meterRegistry, "explanation", "parse_error");
 
                         // Create a fallback response with error information
                         AiResponse fallback = new AiResponse();
@@ -166,11 +514,16 @@ public class DeepseekAiService {
                         fallback.setExamples("No examples available due to API error.");
                         fallback.setPronunciation(getPinyinFallback(word));
                         fallback.setAdjective(false);
+                        recentFailures.put(cacheKey, fallback);
                         return fallback;
                     }
-                })
-                .onErrorResume(e -> {
-                    logger.error("DeepSeek API error: {} ({})", e.getMessage(), e.getClass().getName(), e);
+                }))
+                // Shed requests reach the caller, which answers 503 or a partial response
+                .onErrorResume(e -> !(e instanceof OverloadedException), e -> {
+                    logger.error("DeepSeek API error: {} ({})", e.getMessage(), e.getClass().getName());
+                    cacheStats.recordLoadFailure(System.nanoTime() - loadStart);
+                    Meters.upstreamError(meterRegistry, "ollama", e);
+                    Meters.fallback(meterRegistry, "explanation", "upstream_error");
 
                     // Check for connection issues
                     if (e.getMessage().contains("Connection refused") || e.getMessage().contains("Failed to connect")) {
@@ -184,295 +537,377 @@ public class DeepseekAiService {
                             "No examples available due to connection error. Check if Ollama is running with the model loaded.");
                     fallback.setPronunciation(getPinyinFallback(word));
                     fallback.setAdjective(false);
+                    recentFailures.put(cacheKey, fallback);
                     return Mono.just(fallback);
                 });
     }
 
-    private String generatePrompt(String word, String language) {
-        // For common Malaysian words, we can provide additional context to help the
-        // model
-        String additionalContext = "";
-        String lowercaseWord = word.toLowerCase();
+    /**
+     * Streams the explanation of a word section by section as the model
+     * generates it. Cached explanations are replayed immediately; a generation
+     * already in flight for the same word is joined and replayed once done,
+     * and lookups of the word arriving while the stream runs join it in turn.
+     *
+     * @param word     The word to explain
+     * @param language The language of the word
+     * @return Sections in the order they become available
+     */
+    public Flux<ExplanationSection> streamExplanation(String word, String language) {
+        return Flux.deferContextual(context -> {
+            RequestLog requestLog = RequestLog.from(context);
+            return requestLog.call(() -> loadStream(word, language, requestLog));
+        });
+    }
 
-        // Special handling for common Malay words that might need better translation
-        if (lowercaseWord.equals("makan")) {
-            additionalContext = "Note that 'makan' is a very common Malay verb meaning 'to eat' (吃 in Chinese, pronounced 'chī').";
-        } else if (lowercaseWord.equals("tidur")) {
-            additionalContext = "Note that 'tidur' is a common Malay verb meaning 'to sleep' (睡觉 in Chinese, pronounced 'shuì jiào').";
-        } else if (lowercaseWord.equals("cantik")) {
-            additionalContext = "Note that 'cantik' is a common Malay adjective meaning 'beautiful/pretty' (美丽 in Chinese, pronounced 'měi lì').";
-        } else if (lowercaseWord.equals("muram")) {
-            additionalContext = "Note that 'muram' is a Malay adjective meaning 'gloomy/depressed' (忧郁 in Chinese, pronounced 'yōu yù').";
-        } else if (lowercaseWord.equals("layu")) {
-            additionalContext = "Note that 'layu' is a Malay word meaning 'withered/wilted' (枯萎 in Chinese, pronounced 'kū wěi'). It specifically describes plants that have lost freshness and are drooping.";
-        } else if (lowercaseWord.equals("gerun")) {
-            additionalContext = "Note that 'gerun' is a Malay word meaning 'afraid/fearful' (害怕 in Chinese, pronounced 'hài pà').";
+    private Flux<ExplanationSection> loadStream(String word, String language, RequestLog requestLog) {
+        String cacheKey = language + ":" + word;
+
+        if (cacheEnabled) {
+            AiResponse cached = cache.getIfPresent(cacheKey);
+            if (cached == null) {
+                cached = explanationStore.get(cacheKey);
+            }
+            if (cached != null) {
+                logger.debug("Cache hit for streamed word '{}' in {}", word, language);
+                return Flux.fromIterable(toSections(cached));
+            }
         }
 
-        return String.format(
-                "You are a language expert teaching Simplified Mandarin Chinese who teaches Chinese and needs accurate linguistic details for practical use.\n\n"
-                        +
-                        "DO NOT USE <think> TAGS OR INTERNAL DELIBERATION. RESPOND IMMEDIATELY WITH THE FINAL ANSWER.\n\n"
-                        +
-                        "IMPORTANT: DO NOT USE ANY FORMATTING such as **, _, ~~, or any other markdown. Plain text only with no asterisks or formatting symbols.\n\n"
-                        +
-                        "Please provide a comprehensive explanation of the %s word '%s'. %s\n" +
-                        "The response must be clear, structured, and follow the exact format below:\n\n" +
-                        "1. A simple explanation of the word's meaning written ONLY in Malay language (Bahasa Malaysia/Melayu). THE EXPLANATION MUST BE IN MALAY LANGUAGE, NOT IN CHINESE.\n"
-                        +
-                        "2. The accurate pinyin pronunciation for the Chinese equivalent with tone marks (e.g., 'hǎo', not 'hao3').\n"
-                        +
-                        "3. Three example sentences using this word in real context. Each should include:\n" +
-                        "   - The original sentence in Chinese\n" +
-                        "   - Its translation in Malay\n" +
-                        "4. State whether this word is an adjective in Chinese grammar (answer with YES or NO).\n\n" +
-                        "Use the following EXACT section headers in your response:\n\n" +
-                        "EXPLANATION:\n[your simple explanation written ONLY in Bahasa Malaysia/Melayu, not in Chinese or any other language]\n\n"
-                        +
-                        "PRONUNCIATION:\n[pinyin with tone marks only]\n\n" +
-                        "EXAMPLES:\n" +
-                        "1. [Chinese sentence]\n   [Malay translation]\n" +
-                        "2. [Chinese sentence]\n   [Malay translation]\n" +
-                        "3. [Chinese sentence]\n   [Malay translation]\n\n" +
-                        "IS_ADJECTIVE:\n[YES or NO]",
-                language, word, additionalContext);
-    }
+        // Repeat the fallback of a generation that just failed instead of retrying at once
+        AiResponse failed = recentFailures.getIfPresent(cacheKey);
+        if (failed != null) {
+            negativeHits.incrementAndGet();
+            Meters.fallback(meterRegistry, "explanation", "recent_failure");
+            logger.debug("Recent failure for streamed word '{}' in {}, answering with its fallback", word, language);
+            return Flux.fromIterable(toSections(failed));
+        }
 
-    private String getPinyinFallback(String word) {
-        return "Pinyin unavailable for '" + word + "'";
+        return Flux.defer(() -> {
+            // Register the stream as the in-flight generation of the word. Its
+            // result is emitted once the stream ends, or nothing if the stream is
+            // cancelled, in which case the callers that joined generate it anew.
+            Sinks.One<AiResponse> result = Sinks.one();
+            Mono<AiResponse> registered = result.asMono();
+            Mono<AiResponse> inFlight = inFlightRequests.putIfAbsent(cacheKey, registered);
+            if (inFlight != null) {
+                coalescedRequests.incrementAndGet();
+                logger.debug("Streaming from in-flight generation for word '{}' in {}", word, language);
+                return inFlight.flatMapIterable(this::toSections)
+                        .switchIfEmpty(Flux.defer(() -> streamExplanation(word, language)));
+            }
+            return generateStream(word, language, cacheKey, result, requestLog)
+                    .doFinally(signal -> {
+                        inFlightRequests.remove(cacheKey, registered);
+                        result.tryEmitEmpty();
+                    });
+        });
     }
 
-    private AiResponse parseGeneratedText(String text) {
-        AiResponse response = new AiResponse();
-        logger.debug("Parsing generated text of length: {}", text.length());
-
-        try {
-            // Remove any <think> tags that might be in the response
-            text = text.replaceAll("(?s)<think>.*?</think>", "").trim();
-
-            // Log the raw text for debugging
-            logger.debug("Raw text after removing <think> tags (first 100 chars): {}",
-                    text.length() > 100 ? text.substring(0, 100) + "..." : text);
-
-            // First try using our section extractor
-            Map<String, String> sections = extractSections(text);
-
-            // If any critical sections are missing, try direct regex extraction as a
-            // fallback
-            if (!sections.containsKey("EXPLANATION") || !sections.containsKey("PRONUNCIATION")
-                    || !sections.containsKey("EXAMPLES")) {
-                logger.info("Some sections missing from primary extraction method, trying direct regex extraction...");
-
-                // Try direct extraction with a new approach
-                if (!sections.containsKey("EXPLANATION")) {
-                    String explanation = extractWithRegex(text, "EXPLANATION:", "PRONUNCIATION:");
-                    if (explanation != null) {
-                        sections.put("EXPLANATION", explanation);
-                        logger.debug("Extracted EXPLANATION with regex: {} chars", explanation.length());
-                    }
-                }
-
-                if (!sections.containsKey("PRONUNCIATION")) {
-                    String pronunciation = extractWithRegex(text, "PRONUNCIATION:", "EXAMPLES:");
-                    if (pronunciation != null) {
-                        sections.put("PRONUNCIATION", pronunciation);
-                        logger.debug("Extracted PRONUNCIATION with regex: {} chars", pronunciation.length());
+    /**
+     * Streams a new generation, emitting its explanation to the result sink
+     * for the callers that joined it. Only a reply with an explanation is
+     * cached; a failed or truncated one becomes the recent failure of the word.
+     */
+    private Flux<ExplanationSection> generateStream(String word, String language, String cacheKey,
+            Sinks.One<AiResponse> result, RequestLog requestLog) {
+        long loadStart = System.nanoTime();
+        String modelName = resolveModelName();
+        Map<String, Object> requestBody = buildRequestBody(modelName,
+                promptTimer.record(() -> generatePrompt(word, language)), true, maxTokens);
+        List<ExplanationSection> completed = new ArrayList<>();
+        SectionParser parser = new SectionParser((section, content) -> completed.add(toSection(section, content)));
+
+        logger.info("Streaming explanation for word '{}' in {} from {}", word, language, backendDescription());
+
+        Flux<OllamaGenerateResponse> chunks = backends.executeMany(modelName, url -> webClient.post()
+                .uri(url)
+                .bodyValue(requestBody)
+                .retrieve()
+                // Ollama streams one JSON object per line, each carrying the next tokens
+                .bodyToFlux(OllamaGenerateResponse.class));
+
+        chunks = Meters.timed(chunks, meterRegistry, "ekamus.ollama.generation", "mode", "stream");
+        return (limiterEnabled ? limiter.limitMany(chunks, 1) : chunks)
+                .concatMapIterable(chunk -> {
+                    if (chunk.getResponse() != null) {
+                        parser.feed(chunk.getResponse());
                     }
-                }
-
-                if (!sections.containsKey("EXAMPLES")) {
-                    String examples = extractWithRegex(text, "EXAMPLES:", "IS_ADJECTIVE:");
-                    if (examples != null) {
-                        sections.put("EXAMPLES", examples);
-                        logger.debug("Extracted EXAMPLES with regex: {} chars", examples.length());
+                    return drain(completed);
+                })
+                .concatWith(Flux.defer(() -> requestLog.call(() -> {
+                    parser.finish();
+                    AiResponse aiResponse = parser.toResponse();
+                    if (parser.getSection(SectionParser.Section.EXPLANATION) != null) {
+                        cacheGenerated(cacheKey, aiResponse, loadStart);
+                    } else {
+                        logger.warn("Streamed reply for '{}' has no explanation, not caching it", word);
+                        cacheStats.recordLoadFailure(System.nanoTime() - loadStart);
+                        Meters.fallback(meterRegistry, "explanation", "parse_error");
+                        recentFailures.put(cacheKey, aiResponse);
                     }
-                }
-
-                if (!sections.containsKey("IS_ADJECTIVE")) {
-                    String isAdj = extractWithRegex(text, "IS_ADJECTIVE:", null);
-                    if (isAdj != null) {
-                        sections.put("IS_ADJECTIVE", isAdj);
-                        logger.debug("Extracted IS_ADJECTIVE with regex: {}", isAdj);
+                    result.tryEmitValue(aiResponse);
+                    return Flux.fromIterable(drain(completed));
+                })))
+                .onErrorResume(e -> {
+                    logger.error("Streaming DeepSeek API error for '{}': {}", word, e.getMessage());
+                    cacheStats.recordLoadFailure(System.nanoTime() - loadStart);
+                    Meters.upstreamError(meterRegistry, "ollama", e);
+                    String message = "Could not stream explanation from " + backendDescription() + ". Error: "
+                            + e.getMessage();
+                    if (e instanceof OverloadedException) {
+                        result.tryEmitError(e);
+                    } else {
+                        AiResponse fallback = new AiResponse();
+                        fallback.setExplanation(message);
+                        fallback.setExamples("No examples available due to an error.");
+                        fallback.setPronunciation(getPinyinFallback(word));
+                        fallback.setAdjective(false);
+                        recentFailures.put(cacheKey, fallback);
+                        result.tryEmitValue(fallback);
                     }
-                }
-            }
+                    return Flux.just(new ExplanationSection("ERROR", message));
+                });
+    }
 
-            // Clean up and set the extracted values in the response object
-            response.setExplanation(
-                    cleanUpFormatting(sections.getOrDefault("EXPLANATION", "No explanation available.")));
-            response.setPronunciation(
-                    cleanUpFormatting(sections.getOrDefault("PRONUNCIATION", "No pronunciation available.")));
-            response.setExamples(cleanUpFormatting(sections.getOrDefault("EXAMPLES", "No examples available.")));
-
-            // Handle adjective field
-            String isAdjectiveText = sections.getOrDefault("IS_ADJECTIVE", "NO").trim().toUpperCase();
-            response.setAdjective(isAdjectiveText.contains("YES"));
-
-            logger.debug("Parsed sections - Explanation: {}, Pronunciation: {}, Examples: {}, Is Adjective: {}",
-                    response.getExplanation().substring(0, Math.min(20, response.getExplanation().length())) + "...",
-                    response.getPronunciation(),
-                    response.getExamples().substring(0, Math.min(20, response.getExamples().length())) + "...",
-                    response.isAdjective());
-        } catch (Exception e) {
-            logger.error("Error parsing AI response: {}", e.getMessage(), e);
-            response.setExplanation("Error parsing explanation: " + e.getMessage());
-            response.setExamples("Error parsing examples.");
-            response.setPronunciation("Error parsing pronunciation.");
-            response.setAdjective(false);
+    private static List<ExplanationSection> drain(List<ExplanationSection> completed) {
+        if (completed.isEmpty()) {
+            return List.of();
         }
+        List<ExplanationSection> drained = List.copyOf(completed);
+        completed.clear();
+        return drained;
+    }
 
-        return response;
+    private static ExplanationSection toSection(SectionParser.Section section, String content) {
+        if (section == SectionParser.Section.IS_ADJECTIVE) {
+            content = SectionParser.isYes(content) ? "YES" : "NO";
+        }
+        return new ExplanationSection(section.name(), content);
     }
 
     /**
-     * Extract text between two section headers using regex
-     * 
-     * @param text        Full text
-     * @param startHeader Starting header
-     * @param endHeader   Ending header or null if extracting to the end
-     * @return Extracted text or null if not found
+     * Pulls the generated text out of the generate, chat or legacy completion
+     * response formats
      */
-    private String extractWithRegex(String text, String startHeader, String endHeader) {
-        try {
-            int startIdx = text.indexOf(startHeader);
-            if (startIdx == -1) {
-                logger.warn("Could not find start header: {}", startHeader);
-                return null;
-            }
+    private String extractGeneratedText(OllamaGenerateResponse response, String modelName) {
+        String generatedText = null;
 
-            startIdx += startHeader.length();
-            int endIdx;
+        // Check for response format: Ollama v0.1.x format
+        if (response.getResponse() != null) {
+            generatedText = response.getResponse();
+        }
+        // Check for response format: Ollama chat completion format
+        else if (response.getMessage() != null) {
+            generatedText = response.getMessage().getContent();
+        }
+        // Check for response format: Older Ollama completion format
+        else if (response.getContent() != null) {
+            generatedText = response.getContent();
+        }
 
-            if (endHeader != null) {
-                endIdx = text.indexOf(endHeader, startIdx);
-                if (endIdx == -1) {
-                    // If the end header is not found, extract until the end
-                    endIdx = text.length();
-                }
+        // Check if response is empty
+        if ((generatedText == null || generatedText.isEmpty()) && response.getDoneReason() != null) {
+            if ("load".equals(response.getDoneReason())) {
+                // The model is still loading
+                throw new RuntimeException("The model '" + modelName
+                        + "' is still loading. Please try again in a few moments.");
             } else {
-                endIdx = text.length();
+                throw new RuntimeException("No content returned from API. Reason: " + response.getDoneReason());
             }
-
-            String extracted = text.substring(startIdx, endIdx).trim();
-            logger.debug("Extracted {} to {} ({}): {}",
-                    startHeader,
-                    endHeader != null ? endHeader : "END",
-                    extracted.length(),
-                    extracted.length() > 30 ? extracted.substring(0, 30) + "..." : extracted);
-
-            return extracted;
-        } catch (Exception e) {
-            logger.error("Error extracting section between {} and {}: {}",
-                    startHeader, endHeader, e.getMessage());
-            return null;
         }
-    }
 
-    /**
-     * Cleans up formatting artifacts from the text
-     * Removes asterisks, extra whitespace, and other unwanted formatting
-     * 
-     * @param text The text to clean
-     * @return Cleaned text
-     */
-    private String cleanUpFormatting(String text) {
-        if (text == null || text.isEmpty()) {
-            return text;
+        if (generatedText == null || generatedText.isEmpty()) {
+            throw new RuntimeException("No content found in API response from model " + response.getModel());
         }
+        return generatedText;
+    }
 
-        // More aggressive cleaning of formatting
+    private List<ExplanationSection> toSections(AiResponse response) {
+        return List.of(
+                new ExplanationSection("PRONUNCIATION", response.getPronunciation()),
+                new ExplanationSection("EXPLANATION", response.getExplanation()),
+                new ExplanationSection("EXAMPLES", response.getExamples()),
+                new ExplanationSection("IS_ADJECTIVE", response.isAdjective() ? "YES" : "NO"));
+    }
 
-        // Remove single and double asterisks (bold and italic in markdown)
-        text = text.replaceAll("\\*\\*", "");
-        text = text.replaceAll("\\*", "");
+    private void cacheGenerated(String cacheKey, AiResponse aiResponse, long loadStart) {
+        if (cacheEnabled) {
+            cache.put(cacheKey, aiResponse);
+            explanationStore.put(cacheKey, aiResponse);
+            cacheStats.recordLoadSuccess(System.nanoTime() - loadStart);
+            logger.debug("Cached response for '{}'", cacheKey);
+        }
+    }
 
-        // Remove underscores (italic and bold in markdown)
-        text = text.replaceAll("__", "");
-        text = text.replaceAll("_", "");
+    private String backendDescription() {
+        return backendDefinitions.isEmpty() ? deepseekApiUrl : "the Ollama backends " + backendDefinitions;
+    }
 
-        // Remove tildes (strikethrough in markdown)
-        text = text.replaceAll("~~", "");
+    private String resolveModelName() {
+        // Use the model name from application.properties via deepseekApiKey
+        // This allows us to easily change the model without changing the code
+        String modelName = deepseekApiKey.equals("not-needed-for-ollama") ? "gpt-oss:20b" : deepseekApiKey;
+        logger.debug("Using model: {}", modelName);
+        return modelName;
+    }
 
-        // Remove backticks (code in markdown)
-        text = text.replaceAll("`", "");
+    /**
+     * Builds a request for Ollama's generate endpoint
+     *
+     * @param numPredict Most tokens to generate
+     */
+    private Map<String, Object> buildRequestBody(String modelName, String prompt, boolean stream, int numPredict) {
+        // For Ollama completions API - using the direct completion endpoint format with
+        // optimized parameters. Ollama ignores sampling parameters outside options.
+        Map<String, Object> options = new HashMap<>();
+        options.put("temperature", temperature);
+        options.put("num_predict", numPredict);
 
-        // Remove angle brackets that might be used for HTML-like formatting
-        text = text.replaceAll("<[^>]*>", "");
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", modelName);
+        requestBody.put("prompt", prompt);
+        requestBody.put("stream", stream);
+        requestBody.put("options", options);
+        requestBody.put("system", SYSTEM_PROMPT);
+        return requestBody;
+    }
 
-        // Normalize multiple newlines to a single newline
-        text = text.replaceAll("\n{3,}", "\n\n");
+    String generatePrompt(String word, String language) {
+        String additionalContext = wordContext(word);
 
-        // Remove extra whitespace at the start and end
-        text = text.trim();
+        return String.format(
+                "You are a language expert teaching Simplified Mandarin Chinese who teaches Chinese and needs accurate linguistic details for practical use.\n\n"
+                        +
+                        "DO NOT USE <think> TAGS OR INTERNAL DELIBERATION. RESPOND IMMEDIATELY WITH THE FINAL ANSWER.\n\n"
+                        +
+                        "IMPORTANT: DO NOT USE ANY FORMATTING such as **, _, ~~, or any other markdown. Plain text only with no asterisks or formatting symbols.\n\n"
+                        +
+                        "Please provide a comprehensive explanation of the %s word '%s'. %s\n" +
+                        "The response must be clear, structured, and follow the exact format below:\n\n" +
+                        entryInstructions() +
+                        "Use the following EXACT section headers in your response:\n\n" +
+                        entryFormat(),
+                language, word, additionalContext);
+    }
 
-        // Log the cleaned text for debugging
-        logger.debug("Cleaned text from {} chars to {} chars", text.length() + 1, text.length());
+    /**
+     * Builds one prompt asking for the explanations of several words. Each
+     * answer is introduced by a numbered {@link SectionParser#ENTRY_MARKER}
+     * line so that {@link SectionParser#parsePacked} can split the reply.
+     */
+    String generatePackedPrompt(List<String> words, String language) {
+        StringBuilder wordList = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            String context = wordContext(words.get(i));
+            wordList.append(i + 1).append(". '").append(words.get(i)).append("'");
+            if (!context.isEmpty()) {
+                wordList.append(' ').append(context);
+            }
+            wordList.append('\n');
+        }
 
-        return text;
+        return String.format(
+                "You are a language expert teaching Simplified Mandarin Chinese who teaches Chinese and needs accurate linguistic details for practical use.\n\n"
+                        +
+                        "DO NOT USE <think> TAGS OR INTERNAL DELIBERATION. RESPOND IMMEDIATELY WITH THE FINAL ANSWER.\n\n"
+                        +
+                        "IMPORTANT: DO NOT USE ANY FORMATTING such as **, _, ~~, or any other markdown. Plain text only with no asterisks or formatting symbols.\n\n"
+                        +
+                        "Please provide a comprehensive explanation of each of the following %d %s words:\n\n%s\n" +
+                        "For EVERY word the answer must be clear, structured, and contain:\n\n" +
+                        entryInstructions() +
+                        "Answer the words in the order given. Start the answer for each word with the line\n" +
+                        SectionParser.ENTRY_MARKER + "[number]: [word] ===\n" +
+                        "followed by the following EXACT section headers:\n\n" +
+                        SectionParser.ENTRY_MARKER + "1: [first word] ===\n" +
+                        entryFormat() + "\n\n" +
+                        SectionParser.ENTRY_MARKER + "2: [second word] ===\n" +
+                        "[the same sections for the second word, and so on]\n\n" +
+                        "After the last word write the line " + SectionParser.END_MARKER,
+                words.size(), language, wordList);
     }
 
-    private Map<String, String> extractSections(String text) {
-        Map<String, String> sections = new HashMap<>();
-        String[] sectionHeaders = { "EXPLANATION:", "PRONUNCIATION:", "EXAMPLES:", "IS_ADJECTIVE:" };
+    /**
+     * Numbered requirements shared by the single and packed prompts; the
+     * pronunciation is only asked for when ollama.prompt.include-pronunciation
+     * is set
+     */
+    private String entryInstructions() {
+        List<String> requirements = new ArrayList<>();
+        if (includePronunciation) {
+            requirements.add("The accurate pinyin pronunciation for the Chinese equivalent with tone marks (e.g., 'hǎo', not 'hao3').\n");
+        }
+        requirements.add("A simple explanation of the word's meaning written ONLY in Malay language (Bahasa Malaysia/Melayu). THE EXPLANATION MUST BE IN MALAY LANGUAGE, NOT IN CHINESE.\n");
+        requirements.add("Three example sentences using this word in real context. Each should include:\n" +
+                "   - The original sentence in Chinese\n" +
+                "   - Its translation in Malay\n");
+        requirements.add("State whether this word is an adjective in Chinese grammar (answer with YES or NO).\n");
+
+        StringBuilder instructions = new StringBuilder();
+        for (int i = 0; i < requirements.size(); i++) {
+            instructions.append(i + 1).append(". ").append(requirements.get(i));
+        }
+        return instructions.append('\n').toString();
+    }
 
-        // First, normalize line endings and remove any <think> blocks
-        text = text.replaceAll("(?s)<think>.*?</think>", "").trim();
+    /**
+     * Section layout shared by the single and packed prompts
+     */
+    private String entryFormat() {
+        return (includePronunciation ? "PRONUNCIATION:\n[pinyin with tone marks only]\n\n" : "") +
+                "EXPLANATION:\n[your simple explanation written ONLY in Bahasa Malaysia/Melayu, not in Chinese or any other language]\n\n"
+                +
+                "EXAMPLES:\n" +
+                "1. [Chinese sentence]\n   [Malay translation]\n" +
+                "2. [Chinese sentence]\n   [Malay translation]\n" +
+                "3. [Chinese sentence]\n   [Malay translation]\n\n" +
+                "IS_ADJECTIVE:\n[YES or NO]";
+    }
 
-        // Normalize line endings
-        text = text.replaceAll("\r\n", "\n");
+    private String wordContext(String word) {
+        // For common Malaysian words, we can provide additional context to help the
+        // model
+        String additionalContext = "";
+        String lowercaseWord = word.toLowerCase();
 
-        // Find the start positions of each section
-        Map<String, Integer> sectionPositions = new HashMap<>();
-        for (String header : sectionHeaders) {
-            int pos = text.indexOf(header);
-            if (pos >= 0) {
-                sectionPositions.put(header, pos);
-                logger.debug("Found section '{}' at position {}", header, pos);
-            } else {
-                logger.warn("Section '{}' not found in response", header);
-            }
+        // Special handling for common Malay words that might need better translation
+        if (lowercaseWord.equals("makan")) {
+            additionalContext = "Note that 'makan' is a very common Malay verb meaning 'to eat' (吃 in Chinese, pronounced 'chī').";
+        } else if (lowercaseWord.equals("tidur")) {
+            additionalContext = "Note that 'tidur' is a common Malay verb meaning 'to sleep' (睡觉 in Chinese, pronounced 'shuì jiào').";
+        } else if (lowercaseWord.equals("cantik")) {
+            additionalContext = "Note that 'cantik' is a common Malay adjective meaning 'beautiful/pretty' (美丽 in Chinese, pronounced 'měi lì').";
+        } else if (lowercaseWord.equals("muram")) {
+            additionalContext = "Note that 'muram' is a Malay adjective meaning 'gloomy/depressed' (忧郁 in Chinese, pronounced 'yōu yù').";
+        } else if (lowercaseWord.equals("layu")) {
+            additionalContext = "Note that 'layu' is a Malay word meaning 'withered/wilted' (枯萎 in Chinese, pronounced 'kū wěi'). It specifically describes plants that have lost freshness and are drooping.";
+        } else if (lowercaseWord.equals("gerun")) {
+            additionalContext = "Note that 'gerun' is a Malay word meaning 'afraid/fearful' (害怕 in Chinese, pronounced 'hài pà').";
         }
 
-        // Sort the sections by their position in the text
-        List<String> orderedHeaders = sectionPositions.entrySet().stream()
-                .sorted(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        logger.debug("Ordered section headers: {}", orderedHeaders);
-
-        // Extract each section's content
-        for (int i = 0; i < orderedHeaders.size(); i++) {
-            String currentHeader = orderedHeaders.get(i);
-            int currentStart = sectionPositions.get(currentHeader) + currentHeader.length();
-            String content = "";
-
-            // If this is the last section, extract until the end of text
-            if (i == orderedHeaders.size() - 1) {
-                content = text.substring(currentStart).trim();
-                logger.debug("Extracted '{}' section (last): {} characters",
-                        currentHeader.replace(":", ""), content.length());
-            } else {
-                // Otherwise extract until the start of the next section
-                String nextHeader = orderedHeaders.get(i + 1);
-                int nextStart = sectionPositions.get(nextHeader);
-                content = text.substring(currentStart, nextStart).trim();
-                logger.debug("Extracted '{}' section: {} characters",
-                        currentHeader.replace(":", ""), content.length());
-            }
+        return additionalContext;
+    }
 
-            // Pre-clean the content before storing it
-            content = cleanUpFormatting(content);
-            sections.put(currentHeader.replace(":", ""), content);
+    private String getPinyinFallback(String word) {
+        return "Pinyin unavailable for '" + word + "'";
+    }
 
-            // Log the cleaned content
-            logger.debug("Cleaned '{}' section content: {}",
-                    currentHeader.replace(":", ""),
-                    content.substring(0, Math.min(30, content.length())) + (content.length() > 30 ? "..." : ""));
+    AiResponse parseGeneratedText(String text) {
+        logger.debug("Parsing generated text of length: {}", text.length());
+        try {
+            return SectionParser.parse(text);
+        } catch (Exception e) {
+            logger.error("Error parsing AI response: {}", e.getMessage(), e);
+            AiResponse response = new AiResponse();
+            response.setExplanation("Error parsing explanation: " + e.getMessage());
+            response.setExamples("Error parsing examples.");
+            response.setPronunciation("Error parsing pronunciation.");
+            response.setAdjective(false);
+            return response;
         }
+    }
 
-        return sections;
-    } // Cache management methods
+    // Cache management methods
 
     /**
      * Clears the translation cache
@@ -482,8 +917,10 @@ public class DeepseekAiService {
             logger.info("Cache is disabled, nothing to clear");
             return;
         }
-        logger.info("Clearing translation cache. Removed {} entries.", cache.size());
-        cache.clear();
+        logger.info("Clearing translation cache. Removed {} entries.", cache.estimatedSize());
+        cache.invalidateAll();
+        recentFailures.invalidateAll();
+        explanationStore.clear();
     }
 
     /**
@@ -495,7 +932,22 @@ public class DeepseekAiService {
         if (!cacheEnabled) {
             return 0;
         }
-        return cache.size();
+        return (int) cache.estimatedSize();
+    }
+
+    /**
+     * Returns hit, miss, eviction, load time and retained size statistics of
+     * the translation cache
+     */
+    public Map<String, Object> getCacheStats() {
+        return Caches.describe(cache);
+    }
+
+    /**
+     * Returns statistics of the persistent explanation store
+     */
+    public Map<String, Object> getStoreStats() {
+        return explanationStore.getStats();
     }
 
     /**
@@ -509,7 +961,72 @@ public class DeepseekAiService {
         if (!cacheEnabled) {
             return false;
         }
-        return cache.containsKey(language + ":" + word);
+        String cacheKey = language + ":" + word;
+        return cache.asMap().containsKey(cacheKey) || explanationStore.contains(cacheKey);
+    }
+
+    /**
+     * Returns the number of callers that joined an in-flight generation
+     * instead of starting their own
+     */
+    public long getCoalescedRequests() {
+        return coalescedRequests.get();
+    }
+
+    /**
+     * Returns the number of generations currently running
+     */
+    public int getInFlightRequests() {
+        return inFlightRequests.size();
+    }
+
+    /**
+     * Returns throughput and per-word latency of single and packed
+     * generations
+     */
+    public Map<String, Object> getGenerationStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("packingEnabled", packingEnabled);
+        stats.put("single", singleStats.describe());
+        stats.put("packed", packedStats.describe());
+        stats.put("packedFallbacks", packedFallbacks.get());
+        return stats;
+    }
+
+    /**
+     * Returns the current concurrency limit of the Ollama limiter, the calls
+     * running and waiting under it, and how many were shed
+     */
+    public Map<String, Object> getLimiterStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", limiterEnabled);
+        stats.putAll(limiter.describe());
+        return stats;
+    }
+
+    /**
+     * Returns the load, health and hosted models of each Ollama backend and
+     * how often slow generations were hedged
+     */
+    public Map<String, Object> getBackendStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("backends", backends.describeBackends());
+        stats.put("hedging", backends.describeHedging());
+        return stats;
+    }
+
+    /**
+     * Returns the circuit breaker state of each Ollama backend and how many
+     * recently failed words were answered with their fallback
+     */
+    public Map<String, Object> getBreakerStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("backends", backends.describeBackends().stream()
+                .map(backend -> Map.of("url", backend.get("url"), "breaker", backend.get("breaker")))
+                .toList());
+        stats.put("recentFailures", recentFailures.estimatedSize());
+        stats.put("negativeHits", negativeHits.get());
+        return stats;
     }
 
     /**
@@ -520,4 +1037,17 @@ public class DeepseekAiService {
     public boolean isCacheEnabled() {
         return cacheEnabled;
     }
+
+    private record PackedEntry(String cacheKey, Sinks.One<AiResponse> sink, RequestLog requestLog) {
+    }
+
+    private static final class PendingPack {
+        private final String language;
+        // Insertion order gives the entry numbers of the packed prompt
+        private final Map<String, PackedEntry> entries = new LinkedHashMap<>();
+
+        private PendingPack(String language) {
+            this.language = language;
+        }
+    }
 }
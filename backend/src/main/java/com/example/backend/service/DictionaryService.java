@@ -1,75 +1,699 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.Caches;
+import com.example.backend.lexicon.FuzzyIndex;
+import com.example.backend.lexicon.Lexicon;
+import com.example.backend.lexicon.MalayStemmer;
+import com.example.backend.lexicon.PinyinConverter;
+import com.example.backend.logging.RequestLog;
+import com.example.backend.metrics.Meters;
+import com.example.backend.metrics.ServerTiming;
+import com.example.backend.model.AiResponse;
 import com.example.backend.model.DictionaryResponse;
+import com.example.backend.model.ExplanationSection;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
 @Service
 public class DictionaryService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryService.class);
+
     private final TranslationService translationService;
     private final DeepseekAiService deepseekAiService;
+    private final Lexicon lexicon;
+    private final SuggestionService suggestionService;
+    private final PinyinConverter pinyinConverter;
+    private final MeterRegistry meterRegistry;
+
+    // Finished responses keyed by the normalized Malay word, so a repeated lookup
+    // skips both LibreTranslate and the AI service
+    private Cache<String, DictionaryResponse> responseCache;
+
+    // Headwords of cached responses, used to serve misspelled lookups
+    private volatile FuzzyIndex fuzzyIndex;
+    private final AtomicLong fuzzyCorrections = new AtomicLong();
+
+    // Explanations still generating for fast answers, keyed by enrichment token
+    private Cache<String, CompletableFuture<DictionaryResponse>> enrichments;
+    private final AtomicLong enrichmentTokens = new AtomicLong();
+    private final AtomicLong fastAnswers = new AtomicLong();
+    private final AtomicLong shedExplanations = new AtomicLong();
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong directHits = new AtomicLong();
+    private final AtomicLong stemmedLookups = new AtomicLong();
+    private final AtomicLong rootHits = new AtomicLong();
+
+    @Value("${app.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.cache.response.max-bytes:33554432}")
+    private long responseCacheMaxBytes;
+
+    @Value("${app.cache.response.ttl-hours:168}")
+    private long responseCacheTtlHours;
+
+    @Value("${app.batch.concurrency:4}")
+    private int batchConcurrency;
+
+    @Value("${app.enrichment.ttl-minutes:10}")
+    private long enrichmentTtlMinutes;
+
+    @Value("${app.enrichment.max-pending:10000}")
+    private long enrichmentMaxPending;
+
+    @Value("${app.stemming.enabled:true}")
+    private boolean stemmingEnabled;
+
+    @Value("${app.fuzzy.enabled:true}")
+    private boolean fuzzyEnabled;
+
+    @Value("${app.fuzzy.min-length:4}")
+    private int fuzzyMinLength;
+
+    @Value("${app.fuzzy.max-distance:2}")
+    private int fuzzyMaxDistance;
 
     public DictionaryService(TranslationService translationService,
-            DeepseekAiService deepseekAiService) {
+            DeepseekAiService deepseekAiService, Lexicon lexicon, SuggestionService suggestionService,
+            PinyinConverter pinyinConverter, MeterRegistry meterRegistry) {
         this.translationService = translationService;
         this.deepseekAiService = deepseekAiService;
+        this.lexicon = lexicon;
+        this.suggestionService = suggestionService;
+        this.pinyinConverter = pinyinConverter;
+        this.meterRegistry = meterRegistry;
     }
 
-    public Mono<DictionaryResponse> processWord(String malayWord) {
-        System.out.println("Processing Malay word: " + malayWord);
+    @PostConstruct
+    void initCache() {
+        responseCache = Caches.newBoundedCache(responseCacheMaxBytes, Duration.ofHours(responseCacheTtlHours),
+                Caches::weightOf, new ConcurrentStatsCounter(), (word, response, cause) -> forget(word));
+        CaffeineCacheMetrics.monitor(meterRegistry, responseCache, "responses");
+        fuzzyIndex = new FuzzyIndex(fuzzyMaxDistance);
+        enrichments = Caffeine.newBuilder()
+                .maximumSize(enrichmentMaxPending)
+                .expireAfterWrite(Duration.ofMinutes(enrichmentTtlMinutes))
+                .build();
+    }
 
-        // Use LibreTranslate API for translation
-        System.out.println("Using LibreTranslate API for: " + malayWord);
-        return translationService.translateText(malayWord, "ms", "zh") // "ms" for Malay, "zh" for Simplified Mandarin
-                .flatMap(mandarinWord -> {
-                    System.out.println("Translation successful: '" + malayWord + "' → '" + mandarinWord + "'");
-                    System.out.println("Calling DeepseekAiService for '" + mandarinWord + "'");
-
-                    // Now use DeepseekAi to get detailed information about the word
-                    return deepseekAiService.generateExplanation(mandarinWord, "Mandarin")
-                            .doOnNext(aiResponse -> {
-                                System.out.println("DeepseekAi response received:");
-                                System.out.println("- Explanation: " + aiResponse.getExplanation());
-                                System.out.println("- Examples: " + aiResponse.getExamples());
-                                System.out.println("- Pronunciation: " + aiResponse.getPronunciation());
-                                System.out.println("- Is Adjective: " + aiResponse.isAdjective());
-                            })
-                            .map(aiResponse -> {
-                                DictionaryResponse response = new DictionaryResponse();
-                                response.setMalayWord(malayWord);
-                                response.setMandarinWord(mandarinWord);
-                                response.setExplanation(aiResponse.getExplanation());
-                                response.setExamples(aiResponse.getExamples());
-
-                                // Add the pinyin pronunciation from the AI response
-                                String pronunciation = aiResponse.getPronunciation();
-                                if (pronunciation == null || pronunciation.isEmpty()) {
-                                    response.setPinyin("No pronunciation available");
-                                } else {
-                                    response.setPinyin(pronunciation);
-                                }
-
-                                // Set if the word is an adjective
-                                response.setAdjective(aiResponse.isAdjective());
-
-                                return response;
-                            });
+    public Mono<DictionaryResponse> processWord(String word) {
+        return RequestLog.propagate(process(word, false));
+    }
+
+    /**
+     * Looks up a word without waiting for the model. Cached words are answered
+     * in full; otherwise the answer carries the translation and pinyin as soon
+     * as the translation is known, with enrichmentPending set and a token for
+     * {@link #awaitEnrichment} while the explanation is generated in the
+     * background.
+     */
+    public Mono<DictionaryResponse> processWordFast(String word) {
+        return RequestLog.propagate(process(word, true));
+    }
+
+    private Mono<DictionaryResponse> process(String word, boolean fast) {
+        String malayWord = normalizeWord(word);
+        logger.debug("Processing Malay word: {}", malayWord);
+        lookups.incrementAndGet();
+
+        if (cacheEnabled) {
+            long cacheStart = System.nanoTime();
+            DictionaryResponse cached = responseCache.getIfPresent(malayWord);
+            if (cached != null) {
+                logger.debug("Response cache hit for: {}", malayWord);
+                directHits.incrementAndGet();
+                Meters.count(meterRegistry, "ekamus.lookups", "response_cache");
+                suggestionService.recordLookup(malayWord);
+                return cacheStage(Mono.just(cached), "hit", cacheStart);
+            }
+
+            // Inflected forms share the cache entry, and the model call, of their root
+            String root = stemmingEnabled ? MalayStemmer.stem(malayWord, this::isKnownHeadword) : null;
+            if (root != null) {
+                stemmedLookups.incrementAndGet();
+                DictionaryResponse rootCached = responseCache.getIfPresent(root);
+                if (rootCached != null) {
+                    logger.debug("Root cache hit for: {} (root {})", malayWord, root);
+                    rootHits.incrementAndGet();
+                    Meters.count(meterRegistry, "ekamus.lookups", "root_cache");
+                    suggestionService.recordLookup(root);
+                    return cacheStage(Mono.just(forInflectedForm(rootCached, malayWord, root)), "hit", cacheStart);
+                }
+                logger.debug("Looking up root '{}' for: {}", root, malayWord);
+                Meters.count(meterRegistry, "ekamus.lookups", "miss");
+                UnaryOperator<DictionaryResponse> present = response -> forInflectedForm(response, malayWord, root);
+                return cacheStage(fast ? lookUpFast(root, present) : lookUp(root).map(present), "miss", cacheStart);
+            }
+
+            DictionaryResponse corrected = findCorrection(malayWord);
+            if (corrected != null) {
+                Meters.count(meterRegistry, "ekamus.lookups", "fuzzy_cache");
+                return cacheStage(Mono.just(corrected), "hit", cacheStart);
+            }
+
+            Meters.count(meterRegistry, "ekamus.lookups", "miss");
+            return cacheStage(fast ? lookUpFast(malayWord, UnaryOperator.identity()) : lookUp(malayWord), "miss",
+                    cacheStart);
+        }
+
+        Meters.count(meterRegistry, "ekamus.lookups", "miss");
+        return fast ? lookUpFast(malayWord, UnaryOperator.identity()) : lookUp(malayWord);
+    }
+
+    /**
+     * Reports the time spent consulting the response cache, and whether it had
+     * the word, to the Server-Timing of the request
+     */
+    private static <T> Mono<T> cacheStage(Mono<T> lookup, String description, long cacheStart) {
+        return ServerTiming.recorded(lookup, "cache", description, System.nanoTime() - cacheStart);
+    }
+
+    /**
+     * Translates and explains a normalized word, caching the response once its
+     * explanation has been cached
+     */
+    private Mono<DictionaryResponse> lookUp(String malayWord) {
+        return translate(malayWord)
+                .flatMap(mandarinWord -> explain(malayWord, mandarinWord))
+                .onErrorResume(e -> Mono.just(errorResponse(malayWord, e)));
+    }
+
+    /**
+     * Translates a normalized word and answers with the translation and pinyin
+     * straight away, registering the explanation, which keeps running in the
+     * background, under a new enrichment token
+     *
+     * @param present Adapts both the fast and the enriched response, e.g. to
+     *                an inflected form
+     */
+    private Mono<DictionaryResponse> lookUpFast(String malayWord, UnaryOperator<DictionaryResponse> present) {
+        return Mono.deferContextual(context -> translate(malayWord)
+                .map(mandarinWord -> {
+                    // Subscribed apart from the lookup, so it is handed the logging decisions itself
+                    CompletableFuture<DictionaryResponse> enrichment = explain(malayWord, mandarinWord)
+                            .onErrorResume(e -> Mono.just(errorResponse(malayWord, e)))
+                            .map(present)
+                            .contextWrite(RequestLog.from(context)::writeTo)
+                            .toFuture();
+                    // Explanations cached under the same Mandarin word finish at once
+                    DictionaryResponse ready = enrichment.getNow(null);
+                    if (ready != null) {
+                        return ready;
+                    }
+
+                    String token = UUID.randomUUID().toString();
+                    enrichments.put(token, enrichment);
+                    enrichmentTokens.incrementAndGet();
+
+                    DictionaryResponse response = present.apply(new DictionaryResponse(malayWord, mandarinWord,
+                            null, null, pinyinFor(malayWord, mandarinWord), false));
+                    response.setEnrichmentPending(true);
+                    response.setEnrichmentToken(token);
+                    fastAnswers.incrementAndGet();
+                    return response;
+                })
+                .onErrorResume(e -> Mono.just(present.apply(errorResponse(malayWord, e)))));
+    }
+
+    /**
+     * Explains a translated word
+     */
+    private Mono<DictionaryResponse> explain(String malayWord, String mandarinWord) {
+        logger.debug("Translated '{}' → '{}', requesting its explanation", malayWord, mandarinWord);
+
+        // Now use DeepseekAi to get detailed information about the word
+        return Meters.timed(deepseekAiService.generateExplanation(mandarinWord, "Mandarin"), meterRegistry,
+                "ekamus.explanation")
+                .transformDeferredContextual((explanation, context) -> {
+                    RequestLog requestLog = RequestLog.from(context);
+                    if (!requestLog.logsPayloads()) {
+                        return explanation;
+                    }
+                    return explanation.doOnNext(aiResponse -> requestLog.run(() ->
+                            logger.info("Explanation of '{}': explanation={}, examples={}, pronunciation={}, "
+                                    + "adjective={}", mandarinWord, aiResponse.getExplanation(),
+                                    aiResponse.getExamples(), aiResponse.getPronunciation(),
+                                    aiResponse.isAdjective())));
+                })
+                .map(aiResponse -> {
+                    DictionaryResponse response = toResponse(malayWord, mandarinWord, aiResponse);
+                    cacheResponse(response);
+                    return response;
+                })
+                .onErrorResume(OverloadedException.class, e -> Mono.just(busyResponse(malayWord, mandarinWord, e)));
+    }
+
+    private DictionaryResponse toResponse(String malayWord, String mandarinWord, AiResponse aiResponse) {
+        DictionaryResponse response = new DictionaryResponse();
+        response.setMalayWord(malayWord);
+        response.setMandarinWord(mandarinWord);
+        response.setExplanation(aiResponse.getExplanation());
+        response.setExamples(aiResponse.getExamples());
+
+        // Prefer the local pinyin and fall back to the AI response
+        String pronunciation = pinyinFor(malayWord, mandarinWord);
+        if (pronunciation == null) {
+            pronunciation = aiResponse.getPronunciation();
+        }
+        if (pronunciation == null || pronunciation.isEmpty()) {
+            response.setPinyin("No pronunciation available");
+        } else {
+            response.setPinyin(pronunciation);
+        }
+
+        // Set if the word is an adjective
+        response.setAdjective(aiResponse.isAdjective());
+        return response;
+    }
+
+    /**
+     * Keeps a finished response and makes its word suggestible and
+     * correctable. Only responses whose explanation made it into the AI cache
+     * are kept, so fallback answers produced on upstream errors are retried
+     * next time.
+     */
+    private void cacheResponse(DictionaryResponse response) {
+        if (cacheEnabled && deepseekAiService.isInCache(response.getMandarinWord(), "Mandarin")) {
+            responseCache.put(response.getMalayWord(), response);
+            suggestionService.recordLookup(response.getMalayWord());
+            if (fuzzyEnabled) {
+                fuzzyIndex.add(response.getMalayWord());
+            }
+        }
+    }
+
+    /**
+     * Answers with the translation and pinyin alone when the model sheds the
+     * explanation. The response is not cached and says when to retry.
+     */
+    private DictionaryResponse busyResponse(String malayWord, String mandarinWord, OverloadedException e) {
+        logger.warn("Explanation shed for word: {}, {}", malayWord, e.getMessage());
+        shedExplanations.incrementAndGet();
+        Meters.fallback(meterRegistry, "explanation", "shed");
+
+        long retryAfter = e.getRetryAfter().toSeconds();
+        String pinyin = pinyinFor(malayWord, mandarinWord);
+        DictionaryResponse response = new DictionaryResponse(malayWord, mandarinWord,
+                "The explanation is not available right now because the AI service is busy. Please try again in "
+                        + retryAfter + " seconds.",
+                "No examples available", pinyin == null ? "No pronunciation available" : pinyin, false);
+        response.setRetryAfterSeconds(retryAfter);
+        return response;
+    }
+
+    private DictionaryResponse errorResponse(String malayWord, Throwable e) {
+        logger.warn("Error processing word: {}, error: {}", malayWord, e.getMessage());
+        Meters.fallback(meterRegistry, "translation", Meters.outcomeOf(e));
+
+        // Create an error response instead of throwing an exception
+        DictionaryResponse errorResponse = new DictionaryResponse();
+        errorResponse.setMalayWord(malayWord);
+        errorResponse.setMandarinWord("Translation failed");
+        errorResponse.setExplanation(
+                "Unable to translate this word. LibreTranslate API error: " + e.getMessage());
+        errorResponse.setExamples("No examples available");
+        errorResponse.setPinyin("No pronunciation available");
+        errorResponse.setAdjective(false);
+        if (e instanceof OverloadedException overloaded) {
+            // Translation is unavailable for now, e.g. its circuit breaker is open
+            errorResponse.setRetryAfterSeconds(overloaded.getRetryAfter().toSeconds());
+        }
+        return errorResponse;
+    }
+
+    /**
+     * Returns the complete response behind an enrichment token once its
+     * explanation is ready
+     *
+     * @return The response, or an empty Mono if the token is unknown or expired
+     */
+    public Mono<DictionaryResponse> awaitEnrichment(String token) {
+        CompletableFuture<DictionaryResponse> enrichment = enrichments.getIfPresent(token);
+        return enrichment == null ? Mono.empty() : Mono.fromFuture(enrichment);
+    }
+
+    /**
+     * Checks on an enrichment token without waiting
+     *
+     * @return The complete response if it is ready, or null while it is still
+     *         being generated
+     * @throws IllegalArgumentException if the token is unknown or expired
+     */
+    public DictionaryResponse peekEnrichment(String token) {
+        CompletableFuture<DictionaryResponse> enrichment = enrichments.getIfPresent(token);
+        if (enrichment == null) {
+            throw new IllegalArgumentException("Unknown enrichment token: " + token);
+        }
+        return enrichment.getNow(null);
+    }
+
+    /**
+     * Looks up a list of Malay words. Words are normalized and de-duplicated;
+     * cached responses are emitted first, then the remaining words are looked
+     * up with at most {@code app.batch.concurrency} running at a time and
+     * emitted in completion order.
+     *
+     * @param words The Malay words to look up
+     * @return One response per distinct word
+     */
+    public Flux<DictionaryResponse> processWords(List<String> words) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String word : words) {
+            String normalized = normalizeWord(word);
+            if (!normalized.isEmpty()) {
+                distinct.add(normalized);
+            }
+        }
+
+        List<DictionaryResponse> hits = new ArrayList<>();
+        List<String> misses = new ArrayList<>();
+        for (String word : distinct) {
+            DictionaryResponse cached = cacheEnabled ? responseCache.getIfPresent(word) : null;
+            if (cached != null) {
+                hits.add(cached);
+            } else {
+                misses.add(word);
+            }
+        }
+        logger.debug("Batch lookup of {} words: {} cached, {} to process", distinct.size(), hits.size(),
+                misses.size());
+
+        return RequestLog.propagate(Flux.concat(
+                Flux.fromIterable(hits),
+                Flux.fromIterable(misses).flatMap(this::processWord, Math.max(1, batchConcurrency))));
+    }
+
+    /**
+     * Streams the lookup of a Malay word: the Mandarin translation first,
+     * followed by each explanation section as soon as the model produces it
+     *
+     * @param word The Malay word to look up
+     * @return Sections named MANDARIN, PRONUNCIATION, EXPLANATION, EXAMPLES
+     *         and IS_ADJECTIVE, or a single ERROR section
+     */
+    public Flux<ExplanationSection> streamWord(String word) {
+        String malayWord = normalizeWord(word);
+
+        if (cacheEnabled) {
+            DictionaryResponse cached = responseCache.getIfPresent(malayWord);
+            if (cached != null) {
+                return Flux.just(
+                        new ExplanationSection("MANDARIN", cached.getMandarinWord()),
+                        new ExplanationSection("PRONUNCIATION", cached.getPinyin()),
+                        new ExplanationSection("EXPLANATION", cached.getExplanation()),
+                        new ExplanationSection("EXAMPLES", cached.getExamples()),
+                        new ExplanationSection("IS_ADJECTIVE", cached.isAdjective() ? "YES" : "NO"));
+            }
+        }
+
+        return RequestLog.propagate(translate(malayWord)
+                .flatMapMany(mandarinWord -> {
+                    // Once the reply is complete it is cached like a REST lookup
+                    Map<String, String> streamed = new HashMap<>();
+                    Flux<ExplanationSection> explanation = deepseekAiService
+                            .streamExplanation(mandarinWord, "Mandarin")
+                            .doOnNext(section -> streamed.put(section.getName(), section.getContent()))
+                            .doOnComplete(() -> cacheStreamed(malayWord, mandarinWord, streamed));
+                    String pinyin = pinyinFor(malayWord, mandarinWord);
+                    if (pinyin == null) {
+                        return Flux.concat(
+                                Flux.just(new ExplanationSection("MANDARIN", mandarinWord)),
+                                explanation);
+                    }
+                    // The local pinyin goes out with the translation, before the model starts
+                    return Flux.concat(
+                            Flux.just(new ExplanationSection("MANDARIN", mandarinWord),
+                                    new ExplanationSection("PRONUNCIATION", pinyin)),
+                            explanation.filter(section -> !"PRONUNCIATION".equals(section.getName())));
                 })
-                .onErrorResume(e -> {
-                    System.err.println("Error processing word: " + malayWord + ", error: " + e.getMessage());
-
-                    // Create an error response instead of throwing an exception
-                    DictionaryResponse errorResponse = new DictionaryResponse();
-                    errorResponse.setMalayWord(malayWord);
-                    errorResponse.setMandarinWord("Translation failed");
-                    errorResponse.setExplanation(
-                            "Unable to translate this word. LibreTranslate API error: " + e.getMessage());
-                    errorResponse.setExamples("No examples available");
-                    errorResponse.setPinyin("No pronunciation available");
-                    errorResponse.setAdjective(false);
-
-                    return Mono.just(errorResponse);
-                });
+                .onErrorResume(e -> Flux.just(new ExplanationSection("ERROR",
+                        "Unable to translate this word. LibreTranslate API error: " + e.getMessage()))));
+    }
+
+    /**
+     * Caches the response assembled from the sections of a completed stream.
+     * A stream that failed or ended without an explanation has nothing to
+     * keep.
+     */
+    private void cacheStreamed(String malayWord, String mandarinWord, Map<String, String> sections) {
+        if (!sections.containsKey("EXPLANATION") || sections.containsKey("ERROR")) {
+            return;
+        }
+        AiResponse aiResponse = new AiResponse(sections.get("EXPLANATION"), sections.get("EXAMPLES"),
+                sections.get("PRONUNCIATION"), "YES".equals(sections.get("IS_ADJECTIVE")));
+        cacheResponse(toResponse(malayWord, mandarinWord, aiResponse));
+    }
+
+    /**
+     * Serves a probable misspelling from the cached response of the nearest
+     * known word. Words of the lexicon and words shorter than
+     * {@code app.fuzzy.min-length} are never corrected; longer words tolerate
+     * one edit, and two from eight characters on.
+     *
+     * @return A copy of the cached response naming the typed word in
+     *         correctedFrom, or null if no unambiguous correction is cached
+     */
+    private DictionaryResponse findCorrection(String malayWord) {
+        FuzzyIndex.Match match = correctionOf(malayWord);
+        if (match == null) {
+            return null;
+        }
+        DictionaryResponse cached = responseCache.getIfPresent(match.word());
+        if (cached == null) {
+            return null; // Evicted since it was indexed
+        }
+
+        fuzzyCorrections.incrementAndGet();
+        logger.debug("Corrected '{}' to cached '{}' (distance {})", malayWord, match.word(), match.distance());
+        DictionaryResponse corrected = copyOf(cached);
+        corrected.setCorrectedFrom(malayWord);
+        return corrected;
+    }
+
+    /**
+     * Finds the indexed headword a probable misspelling would be corrected to
+     *
+     * @return The match, or null if the word is not corrected
+     */
+    private FuzzyIndex.Match correctionOf(String malayWord) {
+        if (!fuzzyEnabled || malayWord.length() < fuzzyMinLength || lexicon.contains(malayWord)) {
+            return null;
+        }
+        return fuzzyIndex.closest(malayWord, malayWord.length() >= 8 ? 2 : 1);
+    }
+
+    /**
+     * Drops a word that left the response cache from the spelling and
+     * suggestion indexes, which are filled from the cache and would otherwise
+     * only grow. A word cached again in the meantime is kept.
+     */
+    private void forget(String word) {
+        if (word == null || responseCache.asMap().containsKey(word)) {
+            return;
+        }
+        fuzzyIndex.remove(word);
+        suggestionService.forgetLookup(word);
+    }
+
+    /**
+     * Whether a word can serve as a root: a lexicon word or a cached headword
+     */
+    private boolean isKnownHeadword(String word) {
+        return lexicon.contains(word) || responseCache.asMap().containsKey(word);
+    }
+
+    /**
+     * Presents the response of a root for the inflected form that was looked up
+     */
+    private static DictionaryResponse forInflectedForm(DictionaryResponse rootResponse, String malayWord,
+            String root) {
+        DictionaryResponse response = copyOf(rootResponse);
+        response.setMalayWord(malayWord);
+        response.setRootWord(root);
+        return response;
+    }
+
+    private static DictionaryResponse copyOf(DictionaryResponse response) {
+        return new DictionaryResponse(response.getMalayWord(), response.getMandarinWord(),
+                response.getExplanation(), response.getExamples(), response.getPinyin(), response.isAdjective());
+    }
+
+    /**
+     * Translates a Malay word to Mandarin, from the local lexicon when it has
+     * the word and through LibreTranslate otherwise
+     */
+    private Mono<String> translate(String malayWord) {
+        Lexicon.Entry entry = lexicon.lookup(malayWord);
+        if (entry != null) {
+            logger.debug("Lexicon hit: '{}' → '{}'", malayWord, entry.mandarin());
+            Meters.count(meterRegistry, "ekamus.translation.source", "lexicon");
+            return ServerTiming.timed(Mono.just(entry.mandarin()), "lexicon", "hit");
+        }
+
+        // Use LibreTranslate API for translation
+        logger.debug("Using LibreTranslate API for: {}", malayWord);
+        Meters.count(meterRegistry, "ekamus.translation.source", "libretranslate");
+        return Meters.timed(translationService.translateText(malayWord, "ms", "zh"), // "ms" for Malay, "zh" for Simplified Mandarin
+                meterRegistry, "ekamus.translation");
+    }
+
+    /**
+     * Looks up the pinyin of a translation without the model: the curated
+     * reading of the lexicon when the translation came from it, otherwise the
+     * offline converter
+     *
+     * @return The pinyin with tone marks, or null if neither source has it
+     */
+    private String pinyinFor(String malayWord, String mandarinWord) {
+        Lexicon.Entry entry = lexicon.peek(malayWord);
+        if (entry != null && entry.pinyin() != null && entry.mandarin().equals(mandarinWord)) {
+            return entry.pinyin();
+        }
+        return pinyinConverter.convert(mandarinWord);
+    }
+
+    /**
+     * Checks whether a lookup of a Malay word would be answered from the
+     * response cache, under the word itself, its root or its correction
+     */
+    public boolean isCached(String word) {
+        return cachedKeyOf(normalizeWord(word)) != null;
+    }
+
+    /**
+     * Returns the key a lookup of a normalized word is answered from: the word
+     * itself, the root of an inflected form or the correction of a
+     * misspelling, as in {@link #processWord}
+     *
+     * @return The cached key, or null if the lookup would not be a cache hit
+     */
+    private String cachedKeyOf(String malayWord) {
+        if (!cacheEnabled) {
+            return null;
+        }
+        if (responseCache.asMap().containsKey(malayWord)) {
+            return malayWord;
+        }
+        String root = stemmingEnabled ? MalayStemmer.stem(malayWord, this::isKnownHeadword) : null;
+        if (root != null) {
+            return responseCache.asMap().containsKey(root) ? root : null;
+        }
+        FuzzyIndex.Match match = correctionOf(malayWord);
+        return match != null && responseCache.asMap().containsKey(match.word()) ? match.word() : null;
+    }
+
+    /**
+     * Returns how many misspelled lookups were served from the cached
+     * response of a nearby word, each avoiding a translation and model call
+     */
+    public Map<String, Object> getFuzzyStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", fuzzyEnabled);
+        stats.put("indexedWords", fuzzyIndex.size());
+        stats.put("avoidedLlmCalls", fuzzyCorrections.get());
+        return stats;
+    }
+
+    /**
+     * Returns how often stemming mapped a lookup onto a cached root, and the
+     * response cache hit rate with and without those root hits
+     */
+    public Map<String, Object> getStemmingStats() {
+        long total = lookups.get();
+        long direct = directHits.get();
+        long viaRoot = rootHits.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", stemmingEnabled);
+        stats.put("lookups", total);
+        stats.put("stemmedLookups", stemmedLookups.get());
+        stats.put("rootHits", viaRoot);
+        stats.put("hitRateWithoutStemming", total == 0 ? 0d : (double) direct / total);
+        stats.put("hitRateWithStemming", total == 0 ? 0d : (double) (direct + viaRoot) / total);
+        return stats;
+    }
+
+    /**
+     * Returns how many fast answers were sent ahead of their explanation and
+     * how many of those explanations are still being generated
+     */
+    public Map<String, Object> getEnrichmentStats() {
+        long pending = enrichments.asMap().values().stream().filter(enrichment -> !enrichment.isDone()).count();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("fastAnswers", fastAnswers.get());
+        stats.put("tokens", enrichmentTokens.get());
+        stats.put("pending", pending);
+        return stats;
+    }
+
+    /**
+     * Returns how many lookups were answered without an explanation because
+     * the model was overloaded
+     */
+    public long getShedExplanations() {
+        return shedExplanations.get();
+    }
+
+    /**
+     * Returns the size and hit statistics of the local lexicon
+     */
+    public Map<String, Object> getLexiconStats() {
+        return lexicon.getStats();
+    }
+
+    /**
+     * Returns how many translations the offline converter turned into pinyin
+     */
+    public Map<String, Object> getPinyinStats() {
+        return pinyinConverter.getStats();
+    }
+
+    /**
+     * Normalizes a Malay word into the form used for translation and as the
+     * response cache key
+     */
+    static String normalizeWord(String word) {
+        return word == null ? "" : word.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Clears the response cache
+     */
+    public void clearCache() {
+        responseCache.invalidateAll();
+        fuzzyIndex = new FuzzyIndex(fuzzyMaxDistance);
+    }
+
+    /**
+     * Returns hit, miss, eviction and retained size statistics of the
+     * response cache
+     */
+    public Map<String, Object> getCacheStats() {
+        return Caches.describe(responseCache);
     }
 }
@@ -1,15 +1,22 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.ExplanationStore;
+import com.example.backend.metrics.Meters;
 import com.example.backend.model.AiResponse;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.function.UnaryOperator;
+
 /**
  * Enhanced DeepSeekAiService that overrides specific word translations
  * for better handling of common Malay words.
@@ -21,8 +28,13 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
 
     private static final Logger logger = LoggerFactory.getLogger(EnhancedDeepseekAiService.class);
 
-    public EnhancedDeepseekAiService(WebClient webClient) {
-        super(webClient);
+    private final Timer enhancementTimer;
+
+    public EnhancedDeepseekAiService(@Qualifier("ollamaWebClient") WebClient webClient,
+            ExplanationStore explanationStore, MeterRegistry meterRegistry) {
+        super(webClient, explanationStore, meterRegistry);
+        this.enhancementTimer = Meters.timer(meterRegistry, "ekamus.enhancement",
+                "Post-processing an explanation of a common Malay word");
         logger.info("EnhancedDeepseekAiService initialized - providing enhanced translations for common Malay words");
     }
 
@@ -34,45 +46,50 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
         Mono<AiResponse> response = super.generateExplanation(word, language);
 
         // Post-process the response based on specific words
+        UnaryOperator<AiResponse> enhancement = null;
         switch (lowercaseWord) {
             case "layu":
-                response = response.map(this::enhanceLayu);
+                enhancement = this::enhanceLayu;
                 break;
             case "gerun":
-                response = response.map(this::enhanceGerun);
+                enhancement = this::enhanceGerun;
                 break;
             case "cantik":
-                response = response.map(this::enhanceCantik);
+                enhancement = this::enhanceCantik;
                 break;
             case "pintar":
-                response = response.map(this::enhancePintar);
+                enhancement = this::enhancePintar;
                 break;
             case "cepat":
-                response = response.map(this::enhanceCepat);
+                enhancement = this::enhanceCepat;
                 break;
             case "lambat":
-                response = response.map(this::enhanceLambat);
+                enhancement = this::enhanceLambat;
                 break;
             case "tinggi":
-                response = response.map(this::enhanceTinggi);
+                enhancement = this::enhanceTinggi;
                 break;
             case "pendek":
-                response = response.map(this::enhancePendek);
+                enhancement = this::enhancePendek;
                 break;
             case "baik":
-                response = response.map(this::enhanceBaik);
+                enhancement = this::enhanceBaik;
                 break;
             case "marah":
-                response = response.map(this::enhanceMarah);
+                enhancement = this::enhanceMarah;
                 break;
             case "gembira":
-                response = response.map(this::enhanceGembira);
+                enhancement = this::enhanceGembira;
                 break;
             case "sedih":
-                response = response.map(this::enhanceSedih);
+                enhancement = this::enhanceSedih;
                 break;
         }
 
+        if (enhancement != null) {
+            UnaryOperator<AiResponse> enhance = enhancement;
+            response = response.map(aiResponse -> enhancementTimer.record(() -> enhance.apply(aiResponse)));
+        }
         return response;
     }
 
@@ -83,7 +100,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
         if (response.getExplanation().contains("No explanation available") ||
                 response.getPronunciation().contains("No pronunciation available")) {
 
-            logger.info("Enhancing translation for word 'layu'");
+            logger.debug("Enhancing translation for word 'layu'");
 
             // Provide a better pronunciation
             response.setPronunciation("kū wěi");
@@ -115,7 +132,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
         if (response.getExplanation().contains("No explanation available") ||
                 response.getPronunciation().contains("No pronunciation available")) {
 
-            logger.info("Enhancing translation for word 'gerun'");
+            logger.debug("Enhancing translation for word 'gerun'");
 
             // Provide a better pronunciation
             response.setPronunciation("hài pà");
@@ -146,7 +163,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
     private AiResponse enhanceCantik(AiResponse response) {
         // Only enhance if there are issues with the response
         if (isResponseIncomplete(response)) {
-            logger.info("Enhancing translation for word 'cantik'");
+            logger.debug("Enhancing translation for word 'cantik'");
 
             response.setPronunciation("měi lì");
 
@@ -176,7 +193,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
     private AiResponse enhancePintar(AiResponse response) {
         // Only enhance if there are issues with the response
         if (isResponseIncomplete(response)) {
-            logger.info("Enhancing translation for word 'pintar'");
+            logger.debug("Enhancing translation for word 'pintar'");
 
             response.setPronunciation("cōng míng");
 
@@ -206,7 +223,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
     private AiResponse enhanceCepat(AiResponse response) {
         // Only enhance if there are issues with the response
         if (isResponseIncomplete(response)) {
-            logger.info("Enhancing translation for word 'cepat'");
+            logger.debug("Enhancing translation for word 'cepat'");
 
             response.setPronunciation("kuài");
 
@@ -236,7 +253,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
     private AiResponse enhanceLambat(AiResponse response) {
         // Only enhance if there are issues with the response
         if (isResponseIncomplete(response)) {
-            logger.info("Enhancing translation for word 'lambat'");
+            logger.debug("Enhancing translation for word 'lambat'");
 
             response.setPronunciation("màn");
 
@@ -266,7 +283,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
     private AiResponse enhanceTinggi(AiResponse response) {
         // Only enhance if there are issues with the response
         if (isResponseIncomplete(response)) {
-            logger.info("Enhancing translation for word 'tinggi'");
+            logger.debug("Enhancing translation for word 'tinggi'");
 
             response.setPronunciation("gāo");
 
@@ -296,7 +313,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
     private AiResponse enhancePendek(AiResponse response) {
         // Only enhance if there are issues with the response
         if (isResponseIncomplete(response)) {
-            logger.info("Enhancing translation for word 'pendek'");
+            logger.debug("Enhancing translation for word 'pendek'");
 
             response.setPronunciation("ǎi");
 
@@ -326,7 +343,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
     private AiResponse enhanceBaik(AiResponse response) {
         // Only enhance if there are issues with the response
         if (isResponseIncomplete(response)) {
-            logger.info("Enhancing translation for word 'baik'");
+            logger.debug("Enhancing translation for word 'baik'");
 
             response.setPronunciation("hǎo");
 
@@ -356,7 +373,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
     private AiResponse enhanceMarah(AiResponse response) {
         // Only enhance if there are issues with the response
         if (isResponseIncomplete(response)) {
-            logger.info("Enhancing translation for word 'marah'");
+            logger.debug("Enhancing translation for word 'marah'");
 
             response.setPronunciation("shēng qì");
 
@@ -386,7 +403,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
     private AiResponse enhanceGembira(AiResponse response) {
         // Only enhance if there are issues with the response
         if (isResponseIncomplete(response)) {
-            logger.info("Enhancing translation for word 'gembira'");
+            logger.debug("Enhancing translation for word 'gembira'");
 
             response.setPronunciation("kuài lè");
 
@@ -416,7 +433,7 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
     private AiResponse enhanceSedih(AiResponse response) {
         // Only enhance if there are issues with the response
         if (isResponseIncomplete(response)) {
-            logger.info("Enhancing translation for word 'sedih'");
+            logger.debug("Enhancing translation for word 'sedih'");
 
             response.setPronunciation("bēi shāng");
 
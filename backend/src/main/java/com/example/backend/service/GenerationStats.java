@@ -0,0 +1,58 @@
+package com.example.backend.service;
+
+import com.example.backend.model.OllamaGenerateResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accumulates throughput and latency of one kind of Ollama generation, using
+ * the token counts and durations Ollama reports with each final response.
+ */
+final class GenerationStats {
+
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicLong words = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong promptNanos = new AtomicLong();
+    private final AtomicLong evalTokens = new AtomicLong();
+    private final AtomicLong evalNanos = new AtomicLong();
+    private final AtomicLong wallNanos = new AtomicLong();
+
+    /**
+     * Records one completed generation
+     *
+     * @param wordCount Number of words explained by the generation
+     * @param response  The final response, carrying Ollama's counters
+     * @param elapsed   Wall-clock nanoseconds from request to response
+     */
+    void record(int wordCount, OllamaGenerateResponse response, long elapsed) {
+        generations.incrementAndGet();
+        words.addAndGet(wordCount);
+        wallNanos.addAndGet(elapsed);
+        promptTokens.addAndGet(response.getPromptEvalCount());
+        promptNanos.addAndGet(response.getPromptEvalDuration());
+        evalTokens.addAndGet(response.getEvalCount());
+        evalNanos.addAndGet(response.getEvalDuration());
+    }
+
+    Map<String, Object> describe() {
+        long wordCount = words.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("generations", generations.get());
+        stats.put("words", wordCount);
+        stats.put("promptTokens", promptTokens.get());
+        stats.put("promptTokensPerSecond", perSecond(promptTokens.get(), promptNanos.get()));
+        stats.put("evalTokens", evalTokens.get());
+        stats.put("evalTokensPerSecond", perSecond(evalTokens.get(), evalNanos.get()));
+        stats.put("averageLatencyMillisPerWord",
+                wordCount == 0 ? 0d : TimeUnit.NANOSECONDS.toMicros(wallNanos.get()) / 1000d / wordCount);
+        return stats;
+    }
+
+    private static double perSecond(long tokens, long nanos) {
+        return nanos == 0 ? 0d : tokens * 1_000_000_000d / nanos;
+    }
+}
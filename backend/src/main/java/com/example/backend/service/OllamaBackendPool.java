@@ -0,0 +1,304 @@
+package com.example.backend.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Routes generations across several Ollama backends.
+ * <p>
+ * Each call goes to the backend with the fewest outstanding requests among
+ * those hosting the model and whose circuit breaker is not open, so a backend
+ * that keeps failing is left alone until its breaker probes it again. With
+ * hedging on, a call still running after the configured percentile of recent
+ * latencies is sent to a second backend as well; the first answer wins and
+ * the other request is cancelled. A hedge takes a slot of the concurrency
+ * limiter like any other call, and is skipped when no slot is free.
+ */
+final class OllamaBackendPool {
+
+    private static final int LATENCY_SAMPLES = 256;
+
+    private final List<Backend> backends;
+    private final boolean hedgingEnabled;
+    private final double hedgingPercentile;
+    private final int hedgingMinSamples;
+    private final Duration hedgingMinDelay;
+    // Null when generations are not limited
+    private final AdaptiveLimiter limiter;
+
+    // Recent per-word latencies of successful calls, in nanoseconds; guarded by itself
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyNext;
+
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+    private final AtomicLong hedgesSkipped = new AtomicLong();
+
+    OllamaBackendPool(List<Backend> backends, boolean hedgingEnabled, double hedgingPercentile,
+            int hedgingMinSamples, Duration hedgingMinDelay) {
+        this(backends, hedgingEnabled, hedgingPercentile, hedgingMinSamples, hedgingMinDelay, null);
+    }
+
+    /**
+     * @param limiter Limiter the hedged calls take their slot from, or null
+     *                when generations are not limited
+     */
+    OllamaBackendPool(List<Backend> backends, boolean hedgingEnabled, double hedgingPercentile,
+            int hedgingMinSamples, Duration hedgingMinDelay, AdaptiveLimiter limiter) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one Ollama backend is required");
+        }
+        this.backends = List.copyOf(backends);
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgingPercentile = hedgingPercentile;
+        this.hedgingMinSamples = Math.max(1, hedgingMinSamples);
+        this.hedgingMinDelay = hedgingMinDelay;
+        this.limiter = limiter;
+    }
+
+    /**
+     * Parses backend definitions of the form {@code url|model|model...}. A
+     * backend listing no models is assumed to host every model.
+     *
+     * @param definitions     The definitions, or an empty list for one backend
+     *                        at {@code defaultUrl}
+     * @param breakerFactory  Creates the circuit breaker tracking the health
+     *                        of the backend at a URL
+     */
+    static List<Backend> parse(List<String> definitions, String defaultUrl,
+            Function<String, CircuitBreaker> breakerFactory) {
+        List<Backend> parsed = new ArrayList<>();
+        for (String definition : definitions) {
+            if (definition.isBlank()) {
+                continue;
+            }
+            String[] parts = definition.trim().split("\\|");
+            Set<String> models = new LinkedHashSet<>();
+            Arrays.stream(parts, 1, parts.length).map(String::trim).filter(m -> !m.isEmpty()).forEach(models::add);
+            parsed.add(new Backend(parts[0].trim(), models, breakerFactory.apply(parts[0].trim())));
+        }
+        if (parsed.isEmpty()) {
+            parsed.add(new Backend(defaultUrl, Set.of(), breakerFactory.apply(defaultUrl)));
+        }
+        return parsed;
+    }
+
+    /**
+     * Fails with {@link CircuitOpenException} when no backend hosting the
+     * model is currently up
+     */
+    Mono<Void> checkAvailable(String model) {
+        return select(model, null) != null ? Mono.empty() : Mono.error(unavailable(model));
+    }
+
+    /**
+     * Runs a call on the least loaded backend hosting the model, hedging it
+     * on a second backend when it is slow
+     *
+     * @param words Number of words the call explains, scaling the hedging
+     *              delay
+     * @param call  Builds the request for a backend URL
+     */
+    <T> Mono<T> execute(String model, int words, Function<String, Mono<T>> call) {
+        return Mono.defer(() -> {
+            Backend primary = select(model, null);
+            if (primary == null) {
+                return Mono.error(unavailable(model));
+            }
+            Duration delay = hedgingDelay(words);
+            if (delay == null) {
+                return attempt(primary, words, call);
+            }
+
+            // A failed attempt yields to the other while it is still running
+            AtomicInteger running = new AtomicInteger(1);
+            Mono<T> first = attempt(primary, words, call)
+                    .onErrorResume(e -> running.decrementAndGet() > 0 ? Mono.<T>never() : Mono.<T>error(e));
+            Mono<T> hedge = Mono.delay(delay).flatMap(tick -> {
+                Backend second = select(model, primary);
+                if (second == null) {
+                    return Mono.<T>never();
+                }
+                Mono<T> hedged = limiter == null ? attempt(second, words, call)
+                        : limiter.limitIfFree(attempt(second, words, call), words);
+                if (hedged == null) {
+                    // Extra load on a saturated model would only slow every call down
+                    hedgesSkipped.incrementAndGet();
+                    return Mono.<T>never();
+                }
+                running.incrementAndGet();
+                hedges.incrementAndGet();
+                return hedged
+                        .doOnSuccess(value -> hedgesWon.incrementAndGet())
+                        .onErrorResume(e -> running.decrementAndGet() > 0 ? Mono.<T>never() : Mono.<T>error(e));
+            });
+            return Mono.firstWithSignal(first, hedge);
+        });
+    }
+
+    /**
+     * Streams a call from the least loaded backend hosting the model. Streams
+     * are not hedged.
+     */
+    <T> Flux<T> executeMany(String model, Function<String, Flux<T>> call) {
+        return Flux.defer(() -> {
+            Backend backend = select(model, null);
+            if (backend == null) {
+                return Flux.error(unavailable(model));
+            }
+            return Flux.defer(() -> {
+                backend.outstanding.incrementAndGet();
+                backend.requests.incrementAndGet();
+                return backend.breaker.protectMany(call.apply(backend.url));
+            }).doFinally(signal -> backend.outstanding.decrementAndGet());
+        });
+    }
+
+    private <T> Mono<T> attempt(Backend backend, int words, Function<String, Mono<T>> call) {
+        return Mono.defer(() -> {
+            backend.outstanding.incrementAndGet();
+            backend.requests.incrementAndGet();
+            long start = System.nanoTime();
+            return backend.breaker.protect(call.apply(backend.url))
+                    .doOnSuccess(value -> recordLatency((System.nanoTime() - start) / Math.max(1, words)));
+        }).doFinally(signal -> backend.outstanding.decrementAndGet());
+    }
+
+    /**
+     * Picks the available backend hosting the model with the fewest
+     * outstanding requests, ties going to the one listed first
+     */
+    private Backend select(String model, Backend excluded) {
+        Backend best = null;
+        for (Backend backend : backends) {
+            if (backend == excluded || !backend.hosts(model) || !backend.breaker.isAvailable()) {
+                continue;
+            }
+            if (best == null || backend.outstanding.get() < best.outstanding.get()) {
+                best = backend;
+            }
+        }
+        return best;
+    }
+
+    private CircuitOpenException unavailable(String model) {
+        Duration retryAfter = null;
+        for (Backend backend : backends) {
+            if (backend.hosts(model)) {
+                Duration candidate = backend.breaker.retryAfter();
+                retryAfter = retryAfter == null || candidate.compareTo(retryAfter) < 0 ? candidate : retryAfter;
+            }
+        }
+        if (retryAfter == null) {
+            return new CircuitOpenException("No Ollama backend hosts model " + model, Duration.ofSeconds(60));
+        }
+        return new CircuitOpenException("No Ollama backend for model " + model + " is available", retryAfter);
+    }
+
+    private void recordLatency(long nanosPerWord) {
+        synchronized (latencies) {
+            latencies[latencyNext] = nanosPerWord;
+            latencyNext = (latencyNext + 1) % LATENCY_SAMPLES;
+            latencyCount = Math.min(LATENCY_SAMPLES, latencyCount + 1);
+        }
+    }
+
+    /**
+     * Returns the delay after which a call of this many words is hedged, or
+     * null while hedging is off, there is no second backend or too few
+     * latencies have been seen
+     */
+    private Duration hedgingDelay(int words) {
+        if (!hedgingEnabled || backends.size() < 2) {
+            return null;
+        }
+        long percentile = latencyPercentile(hedgingPercentile);
+        if (percentile < 0) {
+            return null;
+        }
+        Duration delay = Duration.ofNanos(percentile * Math.max(1, words));
+        return delay.compareTo(hedgingMinDelay) < 0 ? hedgingMinDelay : delay;
+    }
+
+    /**
+     * @return The percentile of the recent per-word latencies in nanoseconds,
+     *         or -1 with fewer than the minimum number of samples
+     */
+    private long latencyPercentile(double percentile) {
+        long[] sorted;
+        synchronized (latencies) {
+            if (latencyCount < hedgingMinSamples) {
+                return -1;
+            }
+            sorted = Arrays.copyOf(latencies, latencyCount);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Lists the backends, the models they host and their load and health
+     */
+    List<Map<String, Object>> describeBackends() {
+        List<Map<String, Object>> described = new ArrayList<>();
+        for (Backend backend : backends) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("url", backend.url);
+            stats.put("models", backend.models.isEmpty() ? List.of("*") : List.copyOf(backend.models));
+            stats.put("outstanding", backend.outstanding.get());
+            stats.put("requests", backend.requests.get());
+            stats.put("available", backend.breaker.isAvailable());
+            stats.put("breaker", backend.breaker.describe());
+            described.add(stats);
+        }
+        return described;
+    }
+
+    /**
+     * Describes hedging for the stats endpoint
+     */
+    Map<String, Object> describeHedging() {
+        long percentile = latencyPercentile(hedgingPercentile);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", hedgingEnabled);
+        stats.put("percentile", hedgingPercentile);
+        stats.put("delayMillisPerWord", percentile < 0 ? null : percentile / 1_000_000);
+        stats.put("hedges", hedges.get());
+        stats.put("hedgesWon", hedgesWon.get());
+        stats.put("hedgesSkipped", hedgesSkipped.get());
+        return stats;
+    }
+
+    static final class Backend {
+        private final String url;
+        // Empty when the backend hosts every model
+        private final Set<String> models;
+        private final CircuitBreaker breaker;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong requests = new AtomicLong();
+
+        Backend(String url, Set<String> models, CircuitBreaker breaker) {
+            this.url = url;
+            this.models = models;
+            this.breaker = breaker;
+        }
+
+        boolean hosts(String model) {
+            return models.isEmpty() || models.contains(model);
+        }
+    }
+}
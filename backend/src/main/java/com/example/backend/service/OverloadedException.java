@@ -0,0 +1,24 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a call to an upstream is shed instead of being made, because too
+ * many calls are already waiting for it or because it is unavailable
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public OverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns how long the caller should wait before trying again
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
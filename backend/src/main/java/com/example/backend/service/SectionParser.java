@@ -0,0 +1,361 @@
+package com.example.backend.service;
+
+import com.example.backend.model.AiResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-pass parser for the sectioned text generated by the model.
+ * <p>
+ * Text is fed either as one complete string or as chunks from a streaming
+ * response. While it is appended the parser removes {@code <think>} blocks,
+ * normalizes {@code \r\n} line endings and detects the first occurrence of
+ * each section header. A section is cleaned and reported as soon as the
+ * next header arrives, and the last one when {@link #finish()} is called.
+ * <p>
+ * Results match the former regex based parser: content between consecutive
+ * headers, with markdown characters ({@code *}, {@code _}, {@code ~~},
+ * backticks), HTML-like tags and runs of more than two newlines removed.
+ * Apart from the text buffer and the section strings nothing is allocated.
+ */
+public final class SectionParser {
+
+    public enum Section {
+        EXPLANATION, PRONUNCIATION, EXAMPLES, IS_ADJECTIVE;
+
+        private final String header = name() + ":";
+    }
+
+    /**
+     * Receives each section as soon as it is complete
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onSection(Section section, String content);
+    }
+
+    private static final Section[] SECTIONS = Section.values();
+    private static final String THINK_OPEN = "<think>";
+    private static final String THINK_CLOSE = "</think>";
+
+    /**
+     * Opens each entry of a packed response, followed by the 1-based entry
+     * number, e.g. {@code === WORD 2: makan ===}
+     */
+    public static final String ENTRY_MARKER = "=== WORD ";
+    public static final String END_MARKER = "=== END ===";
+
+    private final StringBuilder text;
+    private final Listener listener;
+    private final String[] contents = new String[SECTIONS.length];
+
+    private Section current;
+    private int contentStart;
+    private int thinkStart = -1;
+    private boolean finished;
+
+    public SectionParser() {
+        this(256, null);
+    }
+
+    public SectionParser(Listener listener) {
+        this(256, listener);
+    }
+
+    private SectionParser(int capacity, Listener listener) {
+        this.text = new StringBuilder(capacity);
+        this.listener = listener;
+    }
+
+    /**
+     * Parses a complete model response
+     */
+    public static AiResponse parse(CharSequence generatedText) {
+        SectionParser parser = new SectionParser(generatedText.length(), null);
+        parser.feed(generatedText);
+        parser.finish();
+        return parser.toResponse();
+    }
+
+    /**
+     * Parses a packed response holding several entries, each introduced by
+     * {@link #ENTRY_MARKER} and its number and containing the usual sections,
+     * optionally closed by {@link #END_MARKER}. An entry without an EXPLANATION section is treated as missing.
+     *
+     * @param generatedText The complete model response
+     * @param entries       Number of entries requested
+     * @return One response per requested entry, null for entries missing from
+     *         the text
+     */
+    public static List<AiResponse> parsePacked(CharSequence generatedText, int entries) {
+        String text = removeThinkBlocks(generatedText);
+        AiResponse[] responses = new AiResponse[entries];
+        int end = text.indexOf(END_MARKER);
+        if (end >= 0) {
+            text = text.substring(0, end);
+        }
+
+        int marker = text.indexOf(ENTRY_MARKER);
+        while (marker >= 0) {
+            int numberStart = marker + ENTRY_MARKER.length();
+            int numberEnd = numberStart;
+            while (numberEnd < text.length() && Character.isDigit(text.charAt(numberEnd))) {
+                numberEnd++;
+            }
+            int lineEnd = text.indexOf('\n', numberEnd);
+            int bodyStart = lineEnd < 0 ? text.length() : lineEnd + 1;
+            int next = text.indexOf(ENTRY_MARKER, bodyStart);
+            int bodyEnd = next < 0 ? text.length() : next;
+
+            if (numberEnd > numberStart && numberEnd - numberStart < 4) {
+                int entry = Integer.parseInt(text, numberStart, numberEnd, 10) - 1;
+                if (entry >= 0 && entry < entries && responses[entry] == null) {
+                    SectionParser parser = new SectionParser(bodyEnd - bodyStart, null);
+                    parser.feed(text.subSequence(bodyStart, bodyEnd));
+                    parser.finish();
+                    if (parser.getSection(Section.EXPLANATION) != null) {
+                        responses[entry] = parser.toResponse();
+                    }
+                }
+            }
+            marker = next;
+        }
+        return new ArrayList<>(Arrays.asList(responses));
+    }
+
+    /**
+     * Appends the next chunk of a response
+     */
+    public void feed(CharSequence chunk) {
+        if (finished) {
+            throw new IllegalStateException("Parser already finished");
+        }
+        for (int i = 0, n = chunk.length(); i < n; i++) {
+            append(chunk.charAt(i));
+        }
+    }
+
+    /**
+     * Completes the last section. A {@code <think>} block that never closed is
+     * kept as ordinary text, so headers inside it are still recognized.
+     */
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        if (thinkStart >= 0) {
+            int from = thinkStart;
+            thinkStart = -1;
+            for (int i = from; i < text.length(); i++) {
+                if (text.charAt(i) == ':') {
+                    detectHeader(i + 1);
+                }
+            }
+        }
+        finished = true;
+        if (current != null) {
+            completeSection(text.length());
+        }
+    }
+
+    /**
+     * Returns the cleaned content of a section, or null if it has not been
+     * completed
+     */
+    public String getSection(Section section) {
+        return contents[section.ordinal()];
+    }
+
+    /**
+     * Builds the response from the completed sections, using the usual
+     * placeholders for missing ones
+     */
+    public AiResponse toResponse() {
+        AiResponse response = new AiResponse();
+        response.setExplanation(orDefault(Section.EXPLANATION, "No explanation available."));
+        response.setPronunciation(orDefault(Section.PRONUNCIATION, "No pronunciation available."));
+        response.setExamples(orDefault(Section.EXAMPLES, "No examples available."));
+        response.setAdjective(isYes(getSection(Section.IS_ADJECTIVE)));
+        return response;
+    }
+
+    /**
+     * Returns whether an IS_ADJECTIVE answer means yes
+     */
+    public static boolean isYes(String answer) {
+        if (answer == null) {
+            return false;
+        }
+        for (int i = 0, n = answer.length() - 2; i < n; i++) {
+            if (Character.toUpperCase(answer.charAt(i)) == 'Y'
+                    && Character.toUpperCase(answer.charAt(i + 1)) == 'E'
+                    && Character.toUpperCase(answer.charAt(i + 2)) == 'S') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes formatting artifacts from a piece of generated text in one pass:
+     * asterisks, underscores, backticks, pairs of tildes and HTML-like tags are
+     * dropped, runs of more than two newlines are collapsed and surrounding
+     * whitespace is trimmed.
+     */
+    public static String clean(CharSequence source) {
+        return clean(source, 0, source.length());
+    }
+
+    static String clean(CharSequence source, int from, int to) {
+        StringBuilder out = new StringBuilder(to - from);
+        int newlines = 0;
+        boolean pendingTilde = false;
+
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            switch (c) {
+                case '*', '_', '`':
+                    continue;
+                case '~':
+                    // A tilde is held back until we know whether it forms a ~~ pair
+                    pendingTilde = !pendingTilde;
+                    continue;
+                case '<':
+                    int close = indexOf(source, '>', i + 1, to);
+                    if (close >= 0) {
+                        i = close;
+                        continue;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (pendingTilde) {
+                pendingTilde = false;
+                newlines = emit(out, '~', newlines);
+            }
+            newlines = emit(out, c, newlines);
+        }
+        if (pendingTilde) {
+            emit(out, '~', newlines);
+        }
+
+        int length = out.length();
+        while (length > 0 && out.charAt(length - 1) <= ' ') {
+            length--;
+        }
+        out.setLength(length);
+        return out.toString();
+    }
+
+    private static String removeThinkBlocks(CharSequence source) {
+        String text = source.toString();
+        int open = text.indexOf(THINK_OPEN);
+        if (open < 0) {
+            return text;
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        int from = 0;
+        while (open >= 0) {
+            int close = text.indexOf(THINK_CLOSE, open + THINK_OPEN.length());
+            if (close < 0) {
+                break; // An unclosed block is kept, as in finish()
+            }
+            out.append(text, from, open);
+            from = close + THINK_CLOSE.length();
+            open = text.indexOf(THINK_OPEN, from);
+        }
+        return out.append(text, from, text.length()).toString();
+    }
+
+    private static int emit(StringBuilder out, char c, int newlines) {
+        if (out.length() == 0 && c <= ' ') {
+            return 0;
+        }
+        if (c == '\n') {
+            if (newlines < 2) {
+                out.append(c);
+            }
+            return newlines + 1;
+        }
+        out.append(c);
+        return 0;
+    }
+
+    private static int indexOf(CharSequence source, char target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (source.charAt(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void append(char c) {
+        int length = text.length();
+        if (c == '\n' && length > 0 && text.charAt(length - 1) == '\r') {
+            text.setCharAt(length - 1, '\n');
+            return;
+        }
+        text.append(c);
+        length++;
+
+        if (c != '>' && c != ':') {
+            return;
+        }
+        if (thinkStart >= 0) {
+            if (c == '>' && endsWith(THINK_CLOSE, length)) {
+                text.setLength(thinkStart);
+                thinkStart = -1;
+            }
+        } else if (c == '>') {
+            if (endsWith(THINK_OPEN, length)) {
+                thinkStart = length - THINK_OPEN.length();
+            }
+        } else {
+            detectHeader(length);
+        }
+    }
+
+    private void detectHeader(int end) {
+        for (Section section : SECTIONS) {
+            if (contents[section.ordinal()] == null && section != current && endsWith(section.header, end)) {
+                int headerStart = end - section.header.length();
+                if (current != null) {
+                    completeSection(headerStart);
+                }
+                current = section;
+                contentStart = end;
+                return;
+            }
+        }
+    }
+
+    private void completeSection(int end) {
+        String content = clean(text, contentStart, end);
+        contents[current.ordinal()] = content;
+        if (listener != null) {
+            listener.onSection(current, content);
+        }
+    }
+
+    private boolean endsWith(String suffix, int end) {
+        int start = end - suffix.length();
+        if (start < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (text.charAt(start + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String orDefault(Section section, String fallback) {
+        String content = getSection(section);
+        return content != null ? content : fallback;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.backend.service;
+
+import com.example.backend.lexicon.HeadwordTrie;
+import com.example.backend.lexicon.Lexicon;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Type-ahead suggestions over known Malay headwords. The index is seeded from
+ * the lexicon and holds the words looked up while their response is cached,
+ * each lookup raising the word's popularity.
+ * <p>
+ * Lookups are recorded on every response-cache hit, so they only bump a
+ * striped counter; the counts are folded into the index in one batch every
+ * app.suggest.fold-interval-ms, keeping the index's write lock off the hot
+ * path and away from concurrent suggestions.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionService.class);
+
+    // Popularity of lexicon words before anyone has looked them up
+    private static final long LEXICON_WEIGHT = 1;
+
+    private final Lexicon lexicon;
+    private final HeadwordTrie trie = new HeadwordTrie();
+    private final Map<String, LongAdder> pendingLookups = new ConcurrentHashMap<>();
+    private final AtomicLong queries = new AtomicLong();
+    private Disposable folding;
+
+    @Value("${app.suggest.max-limit:20}")
+    private int maxLimit;
+
+    @Value("${app.suggest.fold-interval-ms:1000}")
+    private long foldIntervalMillis;
+
+    public SuggestionService(Lexicon lexicon) {
+        this.lexicon = lexicon;
+    }
+
+    @PostConstruct
+    void seed() {
+        lexicon.forEach(entry -> trie.add(entry.malay(), LEXICON_WEIGHT));
+        logger.info("Suggestion index seeded with {} lexicon headwords", trie.size());
+        long interval = Math.max(1, foldIntervalMillis);
+        folding = Schedulers.single().schedulePeriodically(this::foldLookups, interval, interval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (folding != null) {
+            folding.dispose();
+        }
+    }
+
+    /**
+     * Returns the most popular known words starting with the prefix
+     *
+     * @param prefix The typed prefix, normalized like a lookup
+     * @param limit  Maximum number of suggestions, capped by app.suggest.max-limit
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = DictionaryService.normalizeWord(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        queries.incrementAndGet();
+        return trie.suggest(normalized, Math.min(limit, maxLimit));
+    }
+
+    /**
+     * Records a successful lookup of a normalized word. It becomes
+     * suggestible at the next fold.
+     */
+    public void recordLookup(String word) {
+        pendingLookups.computeIfAbsent(word, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Moves the lookups recorded since the last fold into the index. A lookup
+     * recorded while its counter is being drained may go uncounted, which
+     * popularity can afford.
+     */
+    synchronized void foldLookups() {
+        if (pendingLookups.isEmpty()) {
+            return;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        for (String word : pendingLookups.keySet()) {
+            LongAdder counter = pendingLookups.remove(word);
+            if (counter != null) {
+                counts.put(word, counter.sum());
+            }
+        }
+        trie.addAll(counts);
+    }
+
+    /**
+     * Forgets a looked-up word whose response is no longer cached. Lexicon
+     * words stay suggestible. Synchronized with the fold, so a word drained
+     * just before its eviction is not put back afterwards.
+     */
+    public synchronized void forgetLookup(String word) {
+        if (!lexicon.contains(word)) {
+            pendingLookups.remove(word);
+            trie.remove(word);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("headwords", trie.size());
+        stats.put("pendingLookups", pendingLookups.size());
+        stats.put("queries", queries.get());
+        return stats;
+    }
+}
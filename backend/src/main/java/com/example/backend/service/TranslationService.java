@@ -1,16 +1,55 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.Caches;
+import com.example.backend.logging.RequestLog;
+import com.example.backend.metrics.Meters;
+import com.example.backend.metrics.ServerTiming;
+import com.example.backend.model.TranslationBatchRequest;
+import com.example.backend.model.TranslationBatchResponse;
 import com.example.backend.model.TranslationRequest;
 import com.example.backend.model.TranslationResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class TranslationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TranslationService.class);
+
     private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+
+    // LibreTranslate results keyed by text and language pair
+    private Cache<TranslationKey, String> cache;
+
+    // Texts the server rejected recently (4xx other than 429), with the failure message
+    private Cache<TranslationKey, String> recentFailures;
+    private final AtomicLong negativeHits = new AtomicLong();
+    private CircuitBreaker breaker;
 
     @Value("${libretranslate.api.url}")
     private String libreTranslateApiUrl;
@@ -18,53 +57,353 @@ public class TranslationService {
     @Value("${libretranslate.api.key:#{null}}")
     private String libreTranslateApiKey;
 
-    public TranslationService(WebClient webClient) {
+    @Value("${app.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.cache.translation.max-bytes:16777216}")
+    private long cacheMaxBytes;
+
+    @Value("${app.cache.translation.ttl-hours:168}")
+    private long cacheTtlHours;
+
+    @Value("${libretranslate.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    @Value("${libretranslate.breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+
+    @Value("${libretranslate.breaker.open-seconds:30}")
+    private long breakerOpenSeconds;
+
+    @Value("${libretranslate.negative-cache.ttl-seconds:30}")
+    private long negativeTtlSeconds;
+
+    @Value("${libretranslate.batch.enabled:true}")
+    private boolean batchEnabled;
+
+    @Value("${libretranslate.batch.window-ms:3}")
+    private long batchWindowMillis;
+
+    @Value("${libretranslate.batch.max-size:32}")
+    private int batchMaxSize;
+
+    // Batches still collecting texts, one per language pair
+    private final Map<LanguagePair, PendingBatch> openBatches = new HashMap<>();
+    private final AtomicLong batchedRequests = new AtomicLong();
+    private final AtomicLong batchedTexts = new AtomicLong();
+    private final AtomicLong singleRequests = new AtomicLong();
+
+    public TranslationService(@Qualifier("libreTranslateWebClient") WebClient webClient,
+            MeterRegistry meterRegistry) {
         this.webClient = webClient;
-        System.out.println("TranslationService initialized with WebClient: " + webClient);
+        this.meterRegistry = meterRegistry;
+        logger.info("TranslationService initialized with WebClient: {}", webClient);
+    }
+
+    @PostConstruct
+    void initCache() {
+        cache = Caches.newBoundedCache(cacheMaxBytes, Duration.ofHours(cacheTtlHours),
+                (key, translated) -> key.weight() + Caches.weightOf(translated), new ConcurrentStatsCounter());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "translations");
+        recentFailures = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .build();
+        breaker = new CircuitBreaker("LibreTranslate", breakerFailureThreshold,
+                Duration.ofSeconds(breakerOpenSeconds));
     }
 
     public Mono<String> translateText(String text, String sourceLanguage, String targetLanguage) {
+        TranslationKey cacheKey = new TranslationKey(text, sourceLanguage, targetLanguage);
+        // May be called on a Reactor thread, so the logging decisions of the
+        // request come from the Reactor context
+        return Mono.deferContextual(context -> {
+            RequestLog requestLog = RequestLog.from(context);
+            return requestLog.call(() -> translate(cacheKey, requestLog));
+        });
+    }
+
+    private Mono<String> translate(TranslationKey cacheKey, RequestLog requestLog) {
+        String text = cacheKey.text();
+        if (cacheEnabled) {
+            String cached = cache.getIfPresent(cacheKey);
+            if (cached != null) {
+                logger.debug("Translation cache hit: '{}' → '{}'", text, cached);
+                return ServerTiming.timed(Mono.just(cached), "libretranslate", "hit");
+            }
+        }
+
+        // Fail fast on texts that just failed instead of waiting out the timeouts again
+        String failure = recentFailures.getIfPresent(cacheKey);
+        if (failure != null) {
+            negativeHits.incrementAndGet();
+            Meters.fallback(meterRegistry, "translation", "recent_failure");
+            return ServerTiming.timed(Mono.error(new RuntimeException("LibreTranslate API error: " + failure)),
+                    "libretranslate", "recent-failure");
+        }
+
+        Mono<String> translation = batchEnabled ? Mono.defer(() -> enqueue(cacheKey, requestLog))
+                : requestTranslation(cacheKey, requestLog);
+        if (requestLog.logsPayloads()) {
+            translation = translation.doOnNext(translated -> requestLog.run(() ->
+                    logger.info("LibreTranslate translated '{}' from {} to {}: '{}'", text, cacheKey.source(),
+                            cacheKey.target(), translated)));
+        }
+        return ServerTiming.timed(translation, "libretranslate", "miss");
+    }
+
+    /**
+     * Translates a single text with one LibreTranslate request
+     */
+    private Mono<String> requestTranslation(TranslationKey cacheKey, RequestLog requestLog) {
+        String text = cacheKey.text();
+        String sourceLanguage = cacheKey.source();
+        String targetLanguage = cacheKey.target();
+
         TranslationRequest request = new TranslationRequest();
         request.setText(text);
         request.setSource(sourceLanguage); // "ms" for Malay
         request.setTarget(targetLanguage); // "zh" for Simplified Mandarin
         request.setFormat("text");
+        request.setApiKey(resolveApiKey());
 
-        // Add API key if it's configured and not empty
-        if (libreTranslateApiKey != null && !libreTranslateApiKey.isEmpty()
-                && !libreTranslateApiKey.equals("your_libretranslate_api_key")) {
-            request.setApiKey(libreTranslateApiKey);
-        }
-
-        System.out.println("Calling LibreTranslate API at: " + libreTranslateApiUrl);
-        System.out.println("Translating: '" + text + "' from " + sourceLanguage + " to " + targetLanguage);
+        logger.debug("Translating '{}' from {} to {} with LibreTranslate at {}", text, sourceLanguage,
+                targetLanguage, libreTranslateApiUrl);
+        singleRequests.incrementAndGet();
 
         // Call the LibreTranslate API
-        return webClient.post()
+        return Meters.timed(breaker.protect(webClient.post()
                 .uri(libreTranslateApiUrl)
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(TranslationResponse.class)
-                .doOnNext(response -> {
-                    System.out.println("Received LibreTranslate API response: " + response);
-                })
+                .timeout(Duration.ofMillis(timeoutMillis))), meterRegistry, "ekamus.libretranslate.request",
+                "mode", "single")
                 .map(response -> {
                     String translated = response.getTranslatedText();
-                    System.out.println("Translation successful: '" + text + "' → '" + translated + "'");
+                    requestLog.run(() -> logger.debug("Translation successful: '{}' → '{}'", text, translated));
+                    if (cacheEnabled && translated != null) {
+                        cache.put(cacheKey, translated);
+                    }
                     return translated;
                 })
                 .doOnError(error -> {
-                    System.err.println("Error during LibreTranslate API call to " + libreTranslateApiUrl + ": "
-                            + error.getMessage());
+                    Meters.upstreamError(meterRegistry, "libretranslate", error);
+                    logger.warn("Error during LibreTranslate API call to {}: {}", libreTranslateApiUrl,
+                            error.getMessage());
                     if (error.getCause() != null) {
-                        System.err.println("Caused by: " + error.getCause().getMessage());
+                        logger.warn("Caused by: {}", error.getCause().getMessage());
                     }
-                    error.printStackTrace();
                 })
-                .onErrorResume(e -> {
+                // An open breaker is not the text's fault, and keeps its type for the caller
+                .onErrorResume(e -> !(e instanceof CircuitOpenException), e -> {
+                    // Only a rejection of the text itself is remembered, as in failBatch
+                    if (rejectsText(e)) {
+                        recentFailures.put(cacheKey, String.valueOf(e.getMessage()));
+                    }
                     // Provide more detailed error information
-                    System.err.println("Translation API error: " + e.getMessage());
+                    requestLog.run(() -> logger.debug("Translation API error: {}", e.getMessage()));
                     return Mono.error(new RuntimeException("LibreTranslate API error: " + e.getMessage()));
                 });
     }
+
+    /**
+     * Adds a text to the open batch of its language pair. The batch is sent
+     * when it reaches {@code libretranslate.batch.max-size} texts or when its
+     * window closes, whichever comes first. Identical texts in one batch share
+     * a single slot.
+     */
+    private Mono<String> enqueue(TranslationKey cacheKey, RequestLog requestLog) {
+        LanguagePair pair = new LanguagePair(cacheKey.source(), cacheKey.target());
+        PendingBatch full = null;
+        Sinks.One<String> sink;
+        synchronized (openBatches) {
+            PendingBatch batch = openBatches.get(pair);
+            if (batch == null) {
+                batch = new PendingBatch(pair);
+                openBatches.put(pair, batch);
+                PendingBatch scheduled = batch;
+                Schedulers.parallel().schedule(() -> closeBatch(scheduled), batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+            sink = batch.entries.computeIfAbsent(cacheKey.text(), text -> Sinks.one());
+            batch.requestLogs.add(requestLog);
+            if (batch.entries.size() >= batchMaxSize) {
+                openBatches.remove(pair);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return sink.asMono();
+    }
+
+    private void closeBatch(PendingBatch batch) {
+        synchronized (openBatches) {
+            if (!openBatches.remove(batch.pair, batch)) {
+                return; // Already sent because it filled up
+            }
+        }
+        dispatch(batch);
+    }
+
+    /**
+     * Sends a closed batch and completes each caller's sink with its result.
+     * A batch holding one text is sent as an ordinary single request. The
+     * batch logs as its most verbose request.
+     */
+    private void dispatch(PendingBatch batch) {
+        LanguagePair pair = batch.pair;
+        RequestLog requestLog = RequestLog.mostVerbose(batch.requestLogs);
+        if (batch.entries.size() == 1) {
+            Map.Entry<String, Sinks.One<String>> entry = batch.entries.entrySet().iterator().next();
+            requestTranslation(new TranslationKey(entry.getKey(), pair.source(), pair.target()), requestLog)
+                    .subscribe(translated -> entry.getValue().tryEmitValue(translated),
+                            error -> entry.getValue().tryEmitError(error),
+                            () -> entry.getValue().tryEmitEmpty());
+            return;
+        }
+
+        List<String> texts = new ArrayList<>(batch.entries.keySet());
+        TranslationBatchRequest request = new TranslationBatchRequest(texts, pair.source(), pair.target(), "text",
+                resolveApiKey());
+        batchedRequests.incrementAndGet();
+        batchedTexts.addAndGet(texts.size());
+        requestLog.run(() -> logger.debug("Translating batch of {} texts from {} to {}", texts.size(), pair.source(),
+                pair.target()));
+
+        Meters.timed(breaker.protect(webClient.post()
+                .uri(libreTranslateApiUrl)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(TranslationBatchResponse.class)
+                .timeout(Duration.ofMillis(timeoutMillis))), meterRegistry, "ekamus.libretranslate.request",
+                "mode", "batch")
+                .subscribe(response -> {
+                    List<String> translations = response.getTranslatedText();
+                    if (translations == null || translations.size() != texts.size()) {
+                        failBatch(batch, new IllegalStateException("Expected " + texts.size()
+                                + " translations but received "
+                                + (translations == null ? "none" : translations.size())), requestLog);
+                        return;
+                    }
+                    for (int i = 0; i < texts.size(); i++) {
+                        String translated = translations.get(i);
+                        Sinks.One<String> sink = batch.entries.get(texts.get(i));
+                        if (translated == null) {
+                            sink.tryEmitEmpty();
+                            continue;
+                        }
+                        if (cacheEnabled) {
+                            cache.put(new TranslationKey(texts.get(i), pair.source(), pair.target()), translated);
+                        }
+                        sink.tryEmitValue(translated);
+                    }
+                }, error -> failBatch(batch, error, requestLog),
+                        () -> batch.entries.values().forEach(Sinks.One::tryEmitEmpty));
+    }
+
+    /**
+     * Fails the callers of a batch. A batch the server rejected may hold a
+     * single bad text, so its texts are sent again one by one and each one
+     * that fails on its own is negative-cached. Timeouts, lost connections and
+     * malformed replies are not the fault of any text, so nothing is cached.
+     */
+    private void failBatch(PendingBatch batch, Throwable error, RequestLog requestLog) {
+        Meters.upstreamError(meterRegistry, "libretranslate", error);
+        logger.warn("Error during LibreTranslate batch call to {}: {}", libreTranslateApiUrl, error.getMessage());
+        if (rejectsText(error)) {
+            batch.entries.forEach((text, sink) ->
+                    requestTranslation(new TranslationKey(text, batch.pair.source(), batch.pair.target()), requestLog)
+                            .subscribe(sink::tryEmitValue, sink::tryEmitError, sink::tryEmitEmpty));
+            return;
+        }
+        if (error instanceof CircuitOpenException) {
+            batch.entries.values().forEach(sink -> sink.tryEmitError(error));
+            return;
+        }
+        RuntimeException failure = new RuntimeException("LibreTranslate API error: " + error.getMessage());
+        batch.entries.values().forEach(sink -> sink.tryEmitError(failure));
+    }
+
+    /**
+     * Whether the server refused the request for what it sent: a 4xx reply
+     * other than 429, which only asks to slow down
+     */
+    private static boolean rejectsText(Throwable error) {
+        return error instanceof WebClientResponseException rejected && rejected.getStatusCode().is4xxClientError()
+                && rejected.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private String resolveApiKey() {
+        // Add API key if it's configured and not empty
+        if (libreTranslateApiKey != null && !libreTranslateApiKey.isEmpty()
+                && !libreTranslateApiKey.equals("your_libretranslate_api_key")) {
+            return libreTranslateApiKey;
+        }
+        return null;
+    }
+
+    /**
+     * Clears the translation result cache
+     */
+    public void clearCache() {
+        cache.invalidateAll();
+        recentFailures.invalidateAll();
+    }
+
+    /**
+     * Returns hit, miss, eviction and retained size statistics of the
+     * translation result cache
+     */
+    public Map<String, Object> getCacheStats() {
+        return Caches.describe(cache);
+    }
+
+    /**
+     * Returns how many LibreTranslate requests were sent singly and batched
+     */
+    public Map<String, Object> getBatchStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long batches = batchedRequests.get();
+        stats.put("enabled", batchEnabled);
+        stats.put("windowMillis", batchWindowMillis);
+        stats.put("maxSize", batchMaxSize);
+        stats.put("singleRequests", singleRequests.get());
+        stats.put("batchRequests", batches);
+        stats.put("batchedTexts", batchedTexts.get());
+        stats.put("averageBatchSize", batches == 0 ? 0d : (double) batchedTexts.get() / batches);
+        return stats;
+    }
+
+    /**
+     * Returns the state of the LibreTranslate circuit breaker and how many
+     * recently failed texts were failed fast
+     */
+    public Map<String, Object> getBreakerStats() {
+        Map<String, Object> stats = breaker.describe();
+        stats.put("recentFailures", recentFailures.estimatedSize());
+        stats.put("negativeHits", negativeHits.get());
+        return stats;
+    }
+
+    private record LanguagePair(String source, String target) {
+    }
+
+    private static final class PendingBatch {
+        private final LanguagePair pair;
+        // Insertion order matches the order of the q array
+        private final Map<String, Sinks.One<String>> entries = new LinkedHashMap<>();
+        private final List<RequestLog> requestLogs = new ArrayList<>();
+
+        private PendingBatch(LanguagePair pair) {
+            this.pair = pair;
+        }
+    }
+
+    private record TranslationKey(String text, String source, String target) {
+        int weight() {
+            return Caches.weightOf(text) + Caches.weightOf(source) + Caches.weightOf(target);
+        }
+    }
 }
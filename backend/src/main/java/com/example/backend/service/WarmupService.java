@@ -0,0 +1,288 @@
+package com.example.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-fills the caches from a word list so that users do not pay for cold
+ * model calls.
+ * <p>
+ * Each word goes through {@link DictionaryService#processWord} with bounded
+ * concurrency. Words that end up cached are appended to a checkpoint file next
+ * to the word list; an interrupted run started again skips them and resumes
+ * with the rest. The checkpoint is removed once every word has been warmed.
+ */
+@Service
+public class WarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupService.class);
+
+    public enum State {
+        IDLE, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final DictionaryService dictionaryService;
+
+    @Value("${app.warmup.file:data/warmup-words.txt}")
+    private String wordListFile;
+
+    @Value("${app.warmup.concurrency:2}")
+    private int defaultConcurrency;
+
+    @Value("${app.warmup.progress-interval:25}")
+    private int progressInterval;
+
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private volatile State state = State.IDLE;
+    private volatile Path wordList;
+    private volatile int total;
+    private volatile int resumed;
+    private volatile int alreadyCached;
+    private volatile int pending;
+    private volatile int concurrency;
+    private volatile long startedAtMillis;
+    private volatile long startNanos;
+    private volatile long finishNanos;
+    private volatile String error;
+
+    private Disposable run;
+    private BufferedWriter checkpoint;
+    private CompletableFuture<State> done = CompletableFuture.completedFuture(State.IDLE);
+
+    public WarmupService(DictionaryService dictionaryService) {
+        this.dictionaryService = dictionaryService;
+    }
+
+    /**
+     * Starts warming the configured word list ({@code app.warmup.file})
+     *
+     * @param requestedConcurrency Number of words processed at a time, or 0 for
+     *                             {@code app.warmup.concurrency}
+     * @return The status of the started run
+     * @throws IllegalStateException if a run is already in progress
+     */
+    public synchronized Map<String, Object> start(int requestedConcurrency) {
+        if (state == State.RUNNING) {
+            throw new IllegalStateException("A warm-up run is already in progress");
+        }
+
+        Path file = Path.of(wordListFile);
+        Set<String> words = readWords(file);
+        Path checkpointFile = checkpointFor(file);
+        Set<String> checkpointed = readCheckpoint(checkpointFile);
+
+        Set<String> remaining = new LinkedHashSet<>();
+        int skippedCached = 0;
+        for (String word : words) {
+            if (checkpointed.contains(word)) {
+                continue;
+            }
+            if (dictionaryService.isCached(word)) {
+                skippedCached++;
+                continue;
+            }
+            remaining.add(word);
+        }
+
+        wordList = file;
+        total = words.size();
+        resumed = (int) words.stream().filter(checkpointed::contains).count();
+        alreadyCached = skippedCached;
+        pending = remaining.size();
+        concurrency = requestedConcurrency > 0 ? requestedConcurrency : Math.max(1, defaultConcurrency);
+        completed.set(0);
+        failed.set(0);
+        error = null;
+        startedAtMillis = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+        finishNanos = 0;
+        done = new CompletableFuture<>();
+
+        try {
+            checkpoint = Files.newBufferedWriter(checkpointFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open warm-up checkpoint " + checkpointFile, e);
+        }
+
+        state = State.RUNNING;
+        logger.info("Warm-up of {} started: {} words, {} resumed from checkpoint, {} already cached, {} to process "
+                + "with concurrency {}", file, total, resumed, alreadyCached, pending, concurrency);
+
+        run = Flux.fromIterable(remaining)
+                .flatMap(this::warm, concurrency)
+                .subscribe(null, e -> finish(State.FAILED, e), () -> finish(State.COMPLETED, null));
+        return getStatus();
+    }
+
+    /**
+     * Stops the current run. Words already warmed stay checkpointed.
+     */
+    public synchronized Map<String, Object> cancel() {
+        if (state == State.RUNNING) {
+            run.dispose();
+            finish(State.CANCELLED, null);
+        }
+        return getStatus();
+    }
+
+    /**
+     * Waits for the current run to end
+     */
+    public State await() {
+        return done.join();
+    }
+
+    public Map<String, Object> getStatus() {
+        int processed = completed.get() + failed.get();
+        long elapsedNanos = (finishNanos != 0 ? finishNanos : System.nanoTime()) - startNanos;
+        double elapsedSeconds = state == State.IDLE ? 0d : elapsedNanos / 1_000_000_000d;
+        double wordsPerMinute = elapsedSeconds > 0 ? processed * 60d / elapsedSeconds : 0d;
+        int remaining = Math.max(0, pending - processed);
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("file", wordList != null ? wordList.toString() : wordListFile);
+        status.put("total", total);
+        status.put("resumedFromCheckpoint", resumed);
+        status.put("alreadyCached", alreadyCached);
+        status.put("toProcess", pending);
+        status.put("completed", completed.get());
+        status.put("failed", failed.get());
+        status.put("remaining", remaining);
+        status.put("concurrency", concurrency);
+        status.put("startedAt", startedAtMillis == 0 ? null : Instant.ofEpochMilli(startedAtMillis).toString());
+        status.put("elapsedSeconds", Math.round(elapsedSeconds));
+        status.put("wordsPerMinute", wordsPerMinute);
+        status.put("etaSeconds", state == State.RUNNING && wordsPerMinute > 0
+                ? Math.round(remaining * 60d / wordsPerMinute) : null);
+        status.put("error", error);
+        return status;
+    }
+
+    private Mono<Boolean> warm(String word) {
+        return dictionaryService.processWord(word)
+                .map(response -> dictionaryService.isCached(word))
+                .onErrorReturn(false)
+                .defaultIfEmpty(false)
+                .doOnNext(cached -> {
+                    if (cached) {
+                        completed.incrementAndGet();
+                        recordCheckpoint(word);
+                    } else {
+                        failed.incrementAndGet();
+                        logger.warn("Warm-up could not cache '{}', it will be retried on the next run", word);
+                    }
+                    int processed = completed.get() + failed.get();
+                    if (progressInterval > 0 && processed % progressInterval == 0) {
+                        Map<String, Object> status = getStatus();
+                        logger.info("Warm-up progress: {}/{} words ({} failed), {} words/min, ETA {} s",
+                                processed, pending, failed.get(),
+                                String.format("%.1f", (double) status.get("wordsPerMinute")),
+                                status.get("etaSeconds"));
+                    }
+                });
+    }
+
+    private synchronized void recordCheckpoint(String word) {
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            checkpoint.write(word);
+            checkpoint.newLine();
+            checkpoint.flush();
+        } catch (IOException e) {
+            logger.error("Failed to write warm-up checkpoint for '{}': {}", word, e.getMessage());
+        }
+    }
+
+    private synchronized void finish(State finalState, Throwable failure) {
+        if (state != State.RUNNING) {
+            return;
+        }
+        finishNanos = System.nanoTime();
+        state = finalState;
+        error = failure != null ? failure.getMessage() : null;
+        try {
+            checkpoint.close();
+            checkpoint = null;
+            if (finalState == State.COMPLETED && failed.get() == 0) {
+                Files.deleteIfExists(checkpointFor(wordList));
+            }
+        } catch (IOException e) {
+            logger.error("Failed to close warm-up checkpoint: {}", e.getMessage());
+        }
+
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(finishNanos - startNanos);
+        logger.info("Warm-up of {} {} after {} s: {} cached, {} failed", wordList, finalState.name().toLowerCase(),
+                seconds, completed.get(), failed.get());
+        done.complete(finalState);
+    }
+
+    private static Path checkpointFor(Path wordList) {
+        return wordList.resolveSibling(wordList.getFileName() + ".checkpoint");
+    }
+
+    /**
+     * Reads the word list: one word per line, blank lines and lines starting
+     * with # are ignored
+     */
+    private static Set<String> readWords(Path file) {
+        try {
+            Set<String> words = new LinkedHashSet<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String word = DictionaryService.normalizeWord(line);
+                if (!word.isEmpty() && !word.startsWith("#")) {
+                    words.add(word);
+                }
+            }
+            return words;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read warm-up word list " + file, e);
+        }
+    }
+
+    private static Set<String> readCheckpoint(Path file) {
+        if (!Files.exists(file)) {
+            return Set.of();
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            Set<String> words = new HashSet<>(lines.size());
+            for (String line : lines) {
+                if (!line.isBlank()) {
+                    words.add(line.trim());
+                }
+            }
+            return words;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read warm-up checkpoint " + file, e);
+        }
+    }
+}
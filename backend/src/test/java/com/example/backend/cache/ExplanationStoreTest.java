@@ -0,0 +1,96 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.AiResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExplanationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recoversFlushedRecordsAfterReopen() throws Exception {
+        Path log = tempDir.resolve("explanations.log");
+        try (ExplanationStore store = open(log)) {
+            store.put("Mandarin:吃", new AiResponse("Makan bermaksud...", "1. 我吃饭。\n   Saya makan nasi.", "chī", false));
+            store.put("Mandarin:美丽", new AiResponse("Cantik", "No examples available.", "měi lì", true));
+            store.put("Mandarin:吃", new AiResponse("Makan", "1. 他吃苹果。", "chī", false));
+        }
+
+        try (ExplanationStore store = open(log)) {
+            assertEquals(2, store.size());
+            AiResponse eat = store.get("Mandarin:吃");
+            assertEquals("Makan", eat.getExplanation());
+            assertEquals("chī", eat.getPronunciation());
+            AiResponse beautiful = store.get("Mandarin:美丽");
+            assertTrue(beautiful.isAdjective());
+            assertNull(store.get("Mandarin:睡觉"));
+        }
+    }
+
+    @Test
+    void truncatesTornTailOnRecovery() throws Exception {
+        Path log = tempDir.resolve("explanations.log");
+        try (ExplanationStore store = open(log)) {
+            store.put("Mandarin:快", new AiResponse("Cepat", "1. 他跑得很快。", "kuài", true));
+        }
+        long intact = Files.size(log);
+        Files.write(log, new byte[] { 0, 0, 0, 42, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        try (ExplanationStore store = open(log)) {
+            assertEquals("kuài", store.get("Mandarin:快").getPronunciation());
+            assertEquals(intact, Files.size(log));
+        }
+    }
+
+    @Test
+    void servesQueuedWritesBeforeTheyAreFlushed() throws Exception {
+        try (ExplanationStore store = new ExplanationStore(tempDir.resolve("explanations.log"),
+                Duration.ofDays(1), Duration.ofHours(1), 1000, false, 0)) {
+            store.put("Mandarin:慢", new AiResponse("Lambat", "1. 他走路很慢。", "màn", true));
+            assertEquals("màn", store.get("Mandarin:慢").getPronunciation());
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void compactsRewrittenRecordsWhileRunning() throws Exception {
+        Path log = tempDir.resolve("explanations.log");
+        try (ExplanationStore store = new ExplanationStore(log, Duration.ofDays(1), Duration.ofHours(1), 1000,
+                false, 1)) {
+            store.put("Mandarin:吃", new AiResponse("Makan", "1. 我吃饭。", "chī", false));
+            store.put("Mandarin:快", new AiResponse("Cepat", "1. 他跑得很快。", "kuài", true));
+            store.flush();
+            long live = Files.size(log);
+
+            for (int i = 0; i < 10; i++) {
+                store.put("Mandarin:吃", new AiResponse("Makan " + i, "1. 我吃饭。", "chī", false));
+                store.flush();
+            }
+
+            assertEquals("Makan 9", store.get("Mandarin:吃").getExplanation());
+            assertEquals("kuài", store.get("Mandarin:快").getPronunciation());
+            assertTrue(Files.size(log) < 2 * live);
+            assertTrue((Long) store.getStats().get("compactions") > 0);
+        }
+
+        try (ExplanationStore store = open(log)) {
+            assertEquals(2, store.size());
+            assertEquals("Makan 9", store.get("Mandarin:吃").getExplanation());
+        }
+    }
+
+    private ExplanationStore open(Path log) {
+        return new ExplanationStore(log, Duration.ofDays(1), Duration.ofMillis(50), 64, false, 64 * 1024);
+    }
+}
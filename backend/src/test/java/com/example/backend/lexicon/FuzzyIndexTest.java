@@ -0,0 +1,47 @@
+package com.example.backend.lexicon;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FuzzyIndexTest {
+
+    @Test
+    void correctsOnlyUnambiguousNearMisses() {
+        FuzzyIndex index = new FuzzyIndex(2);
+        index.add("cantik");
+        index.add("makan");
+        index.add("mandi");
+        index.add("pemandangan");
+
+        assertEquals(new FuzzyIndex.Match("cantik", 1), index.closest("cantk", 1));
+        assertEquals(new FuzzyIndex.Match("cantik", 1), index.closest("cnatik", 1));
+        assertEquals(new FuzzyIndex.Match("cantik", 1), index.closest("cantikk", 1));
+        assertEquals(new FuzzyIndex.Match("pemandangan", 2), index.closest("pemandngn", 2));
+        assertNull(index.closest("pemandngn", 1));
+
+        // Already known, too far, and equally close to two words
+        assertNull(index.closest("makan", 2));
+        assertNull(index.closest("minum", 1));
+        index.add("makin");
+        assertNull(index.closest("makun", 1));
+    }
+
+    @Test
+    void forgetsRemovedWords() {
+        FuzzyIndex index = new FuzzyIndex(2);
+        index.add("makan");
+        index.add("makin");
+        assertNull(index.closest("makun", 1));
+
+        index.remove("makin");
+        index.remove("minum");
+        assertEquals(new FuzzyIndex.Match("makan", 1), index.closest("makun", 1));
+        assertEquals(1, index.size());
+
+        index.remove("makan");
+        assertNull(index.closest("makun", 1));
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.backend.lexicon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeadwordTrieTest {
+
+    @Test
+    void ranksByPopularityAndUpdatesIncrementally() {
+        HeadwordTrie trie = new HeadwordTrie();
+        for (String word : List.of("makan", "makanan", "malam", "malas", "mata", "minum")) {
+            trie.add(word, 1);
+        }
+        trie.add("malam", 5);
+        trie.add("makanan", 2);
+
+        assertEquals(List.of("malam", "makanan", "makan"), trie.suggest("ma", 3));
+        assertEquals(List.of("makanan", "makan"), trie.suggest("maka", 10));
+        assertEquals(List.of(), trie.suggest("x", 10));
+
+        trie.add("makan", 10);
+        trie.add("mandi", 1);
+        assertEquals(List.of("makan", "malam", "makanan", "malas", "mandi", "mata"), trie.suggest("ma", 10));
+        assertEquals(7, trie.size());
+    }
+
+    @Test
+    void removesWordsAndTheirBranches() {
+        HeadwordTrie trie = new HeadwordTrie();
+        trie.add("makan", 1);
+        trie.add("makanan", 5);
+        trie.add("malam", 3);
+
+        assertTrue(trie.remove("makanan"));
+        assertFalse(trie.remove("makanan"));
+        assertFalse(trie.remove("mak"));
+        assertEquals(List.of("malam", "makan"), trie.suggest("ma", 10));
+        assertEquals(List.of(), trie.suggest("makana", 10));
+
+        assertTrue(trie.remove("malam"));
+        assertTrue(trie.remove("makan"));
+        assertEquals(List.of(), trie.suggest("m", 10));
+        assertEquals(0, trie.size());
+
+        trie.add("malam", 1);
+        assertEquals(List.of("malam"), trie.suggest("ma", 10));
+    }
+
+    @Test
+    void addsBatchesLikeSingleUpdates() {
+        HeadwordTrie trie = new HeadwordTrie();
+        trie.add("makan", 2);
+        trie.addAll(Map.of("makan", 1L, "malam", 4L, "mata", 1L, "", 3L));
+
+        assertEquals(List.of("malam", "makan", "mata"), trie.suggest("ma", 10));
+        assertEquals(3, trie.size());
+    }
+}
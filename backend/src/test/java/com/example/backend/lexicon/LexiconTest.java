@@ -0,0 +1,62 @@
+package com.example.backend.lexicon;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LexiconTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findsEveryEntryOfAnUnsortedSource() {
+        String source = "# comment\n"
+                + "tidur\t睡觉\tshuì jiào\n"
+                + "Makan\t吃\tchī\n"
+                + "\n"
+                + "terima kasih\t谢谢\txiè xie\n"
+                + "cantik\t美丽\n"
+                + "makan\t饭\tfàn\n"
+                + "rosak\n";
+
+        Lexicon lexicon = Lexicon.open(tempDir.resolve("lexicon.bin"), source);
+
+        assertEquals(4, lexicon.size());
+        assertEquals(new Lexicon.Entry("makan", "吃", "chī"), lexicon.lookup("makan"));
+        assertEquals("谢谢", lexicon.lookup("terima kasih").mandarin());
+        assertNull(lexicon.lookup("cantik").pinyin());
+        assertNull(lexicon.lookup("maka"));
+        assertNull(lexicon.lookup("makanan"));
+        assertNull(lexicon.lookup("zzz"));
+        assertFalse(lexicon.contains("rosak"));
+
+        List<String> headwords = new ArrayList<>();
+        lexicon.forEach(entry -> headwords.add(entry.malay()));
+        assertEquals(List.of("cantik", "makan", "terima kasih", "tidur"), headwords);
+    }
+
+    @Test
+    void rebuildsOnlyWhenTheSourceChanges() throws Exception {
+        Path file = tempDir.resolve("lexicon.bin");
+        Lexicon.open(file, "makan\t吃\tchī\n");
+        long built = Files.getLastModifiedTime(file).toMillis();
+        Files.setLastModifiedTime(file, FileTime.fromMillis(built - 60_000));
+
+        Lexicon.open(file, "makan\t吃\tchī\n");
+        assertEquals(built - 60_000, Files.getLastModifiedTime(file).toMillis());
+
+        Lexicon changed = Lexicon.open(file, "makan\t吃\tchī\nminum\t喝\thē\n");
+        assertTrue(changed.contains("minum"));
+    }
+}
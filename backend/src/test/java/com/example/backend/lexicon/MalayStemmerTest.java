@@ -0,0 +1,56 @@
+package com.example.backend.lexicon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MalayStemmerTest {
+
+    private static final Set<String> ROOTS = Set.of("makan", "tulis", "pukul", "sapu", "kira", "ambil", "beli",
+            "dengar", "lihat", "ajar", "sayur", "kanak", "buku", "baik", "besar", "cat", "masak", "masa", "main",
+            "nyanyi", "makanan", "kerja", "dapat", "jalan", "layu", "deka", "reka", "sin", "ja");
+
+    @Test
+    void mapsInflectedFormsOntoKnownRoots() {
+        String[][] cases = {
+                { "memakan", "makan" }, { "dimakan", "makan" }, { "menulis", "tulis" }, { "memukul", "pukul" },
+                { "menyapu", "sapu" }, { "mengira", "kira" }, { "mengambil", "ambil" }, { "membeli", "beli" },
+                { "mendengar", "dengar" }, { "melihat", "lihat" }, { "berjalan", "jalan" },
+                { "sayur-sayuran", "sayur" }, { "kanak-kanak", "kanak" }, { "bukunya", "buku" },
+                { "bukunyalah", "buku" }, { "mengecat", "cat" }, { "bermain-main", "main" },
+                { "dilihatnya", "lihat" }, { "makankah", "makan" },
+        };
+        for (String[] c : cases) {
+            assertEquals(c[1], MalayStemmer.stem(c[0], ROOTS::contains), c[0]);
+        }
+    }
+
+    @Test
+    void leavesDerivedWordsAlone() {
+        // Derivational affixes make words of their own, e.g. pelajar is a student, not to teach
+        for (String word : new String[] { "pelajar", "belajar", "pekerja", "mainan", "semasa", "pendapat",
+                "masakan", "terbaik", "kelihatan", "membesarkan", "memperbaiki" }) {
+            assertNull(MalayStemmer.stem(word, ROOTS::contains), word);
+        }
+    }
+
+    @Test
+    void leavesLexicalizedMeWordsAlone() {
+        // melayu is a word of its own, not me- on layu (withered)
+        for (String word : new String[] { "melayu", "melayunya", "melayulah", "merdeka", "mereka", "mesin",
+                "meja" }) {
+            assertNull(MalayStemmer.stem(word, ROOTS::contains), word);
+        }
+    }
+
+    @Test
+    void leavesKnownAndUnknownWordsAlone() {
+        assertNull(MalayStemmer.stem("makanan", ROOTS::contains));
+        assertNull(MalayStemmer.stem("makan", ROOTS::contains));
+        assertNull(MalayStemmer.stem("berlari", ROOTS::contains));
+        assertNull(MalayStemmer.stem("ini", ROOTS::contains));
+    }
+}
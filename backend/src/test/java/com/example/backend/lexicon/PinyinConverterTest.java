@@ -0,0 +1,40 @@
+package com.example.backend.lexicon;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PinyinConverterTest {
+
+    @Test
+    void resolvesPolyphonesByLongestPhrase() throws IOException {
+        PinyinConverter converter = PinyinConverter.load(resource("/pinyin/chars.tsv"),
+                resource("/pinyin/phrases.tsv"));
+
+        assertEquals("chī", converter.convert("吃"));
+        assertEquals("měi lì", converter.convert("美丽"));
+        assertEquals("yín háng", converter.convert("银行"));
+        assertEquals("xíng zǒu", converter.convert("行走"));
+        assertEquals("zhǎng dà", converter.convert("长大"));
+        assertEquals("cháng", converter.convert("长"));
+        assertEquals("shuì jiào", converter.convert("睡觉"));
+        assertEquals("péng you", converter.convert("朋友"));
+        assertEquals("wǒ de péng you", converter.convert("我的朋友"));
+        assertEquals("kǎ lā OK", converter.convert("卡拉 OK"));
+
+        // Nothing to convert
+        assertNull(converter.convert("hello"));
+        assertNull(PinyinConverter.empty().convert("吃"));
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = PinyinConverterTest.class.getResourceAsStream(name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.backend.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestLogTest {
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    private static RequestLog captured(String requestId, boolean trace, boolean payloads) {
+        MDC.put(RequestLog.REQUEST_ID, requestId);
+        if (trace) {
+            MDC.put(RequestLog.TRACE, "true");
+        }
+        if (payloads) {
+            MDC.put(RequestLog.PAYLOADS, "true");
+        }
+        RequestLog requestLog = RequestLog.current();
+        MDC.clear();
+        return requestLog;
+    }
+
+    @Test
+    void carriesTheDecisionsToReactorThreads() {
+        MDC.put(RequestLog.REQUEST_ID, "abc");
+        MDC.put(RequestLog.TRACE, "true");
+        Mono<String> lookup = RequestLog.propagate(Mono.deferContextual(context -> Mono.just(RequestLog.from(context)))
+                .publishOn(Schedulers.parallel())
+                .map(requestLog -> requestLog.call(() ->
+                        MDC.get(RequestLog.REQUEST_ID) + " " + MDC.get(RequestLog.TRACE)))
+                .subscribeOn(Schedulers.boundedElastic()));
+        MDC.clear();
+
+        assertEquals("abc true", lookup.block());
+    }
+
+    @Test
+    void restoresTheMdcOfTheCallingThread() {
+        RequestLog sampled = captured("sampled", true, false);
+        MDC.put(RequestLog.REQUEST_ID, "other");
+
+        AtomicReference<String> inside = new AtomicReference<>();
+        sampled.run(() -> inside.set(MDC.get(RequestLog.REQUEST_ID)));
+
+        assertEquals("sampled", inside.get());
+        assertEquals("other", MDC.get(RequestLog.REQUEST_ID));
+        assertNull(MDC.get(RequestLog.TRACE));
+    }
+
+    @Test
+    void leavesTheMdcAloneForUnsampledRequests() {
+        RequestLog unsampled = captured("unsampled", false, false);
+
+        AtomicReference<String> inside = new AtomicReference<>();
+        unsampled.run(() -> inside.set(MDC.get(RequestLog.REQUEST_ID)));
+
+        assertNull(inside.get());
+        assertFalse(unsampled.traced());
+    }
+
+    @Test
+    void batchesLogAsTheirMostVerboseRequest() {
+        RequestLog plain = captured("plain", false, false);
+        RequestLog sampled = captured("sampled", true, false);
+        RequestLog payloads = captured("payloads", true, true);
+
+        assertSame(RequestLog.NONE, RequestLog.mostVerbose(List.of()));
+        assertSame(sampled, RequestLog.mostVerbose(List.of(plain, sampled)));
+        assertSame(payloads, RequestLog.mostVerbose(List.of(plain, sampled, payloads)));
+        assertTrue(payloads.logsPayloads());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SampledTraceTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final SampledTraceTurboFilter filter = new SampledTraceTurboFilter();
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    private FilterReply decide(String loggerName, Level level) {
+        Logger logger = context.getLogger(loggerName);
+        return filter.decide(null, logger, level, "message", null, null);
+    }
+
+    @Test
+    void acceptsApplicationDebugLogsOfSampledRequests() {
+        MDC.put(RequestLog.TRACE, "true");
+        assertEquals(FilterReply.ACCEPT, decide("com.example.backend.service.DictionaryService", Level.DEBUG));
+        assertEquals(FilterReply.NEUTRAL, decide("reactor.netty.http.client.HttpClient", Level.DEBUG));
+        assertEquals(FilterReply.NEUTRAL, decide("com.example.backend.service.DictionaryService", Level.INFO));
+    }
+
+    @Test
+    void leavesOtherRequestsToTheConfiguredLevels() {
+        assertEquals(FilterReply.NEUTRAL, decide("com.example.backend.service.DictionaryService", Level.DEBUG));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.backend.metrics;
+
+import com.example.backend.service.CircuitOpenException;
+import com.example.backend.service.OverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetersTest {
+
+    @Test
+    void tagsTimedCallsWithTheirOutcome() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        Meters.timed(Mono.just("ok"), registry, "stage", "mode", "single").block();
+        Meters.timed(Mono.error(new IllegalStateException()), registry, "stage", "mode", "single")
+                .onErrorResume(e -> Mono.empty()).block();
+        Meters.timed(Mono.never(), registry, "stage", "mode", "single").subscribe().dispose();
+
+        assertEquals(1, registry.get("stage").tags("mode", "single", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("stage").tags("outcome", "error").timer().count());
+        assertEquals(1, registry.get("stage").tags("outcome", "cancelled").timer().count());
+    }
+
+    @Test
+    void classifiesUpstreamErrors() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        Meters.upstreamError(registry, "ollama", new CircuitOpenException("open", Duration.ofSeconds(1)));
+        Meters.upstreamError(registry, "ollama", new OverloadedException("busy", Duration.ofSeconds(1)));
+        Meters.upstreamError(registry, "ollama", new TimeoutException());
+        Meters.upstreamError(registry, "ollama", new TimeoutException());
+
+        assertEquals(1, registry.get("ekamus.upstream.errors").tags("outcome", "circuit_open").counter().count());
+        assertEquals(1, registry.get("ekamus.upstream.errors").tags("outcome", "shed").counter().count());
+        assertEquals(2, registry.get("ekamus.upstream.errors").tags("upstream", "ollama", "outcome", "timeout")
+                .counter().count());
+    }
+}
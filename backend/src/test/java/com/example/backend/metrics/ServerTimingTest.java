@@ -0,0 +1,35 @@
+package com.example.backend.metrics;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerTimingTest {
+
+    @Test
+    void collectsTheStagesOfTheRequestInOrder() {
+        ServerTiming timing = ServerTiming.start();
+        Mono<String> lookup = ServerTiming.recorded(
+                ServerTiming.timed(Mono.just("吃"), "libretranslate", "miss"), "cache", "miss", 2_000_000);
+
+        assertEquals("吃", lookup.contextWrite(timing::writeTo).block());
+        String header = timing.header();
+        assertTrue(header.startsWith("cache;desc=\"miss\";dur=2.00, libretranslate;desc=\"miss\";dur="), header);
+        assertTrue(header.contains(", total;dur="), header);
+    }
+
+    @Test
+    void addsUpRepeatedStages() {
+        ServerTiming timing = ServerTiming.start();
+        timing.record("parse", null, 1_500_000);
+        timing.record("parse", null, 500_000);
+        assertTrue(timing.header().startsWith("parse;dur=2.00, total;dur="));
+    }
+
+    @Test
+    void recordsNothingOutsideATimedRequest() {
+        assertEquals("吃", ServerTiming.timed(Mono.just("吃"), "ollama", "hit").block());
+    }
+}
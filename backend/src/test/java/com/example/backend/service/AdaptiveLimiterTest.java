@@ -0,0 +1,71 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+
+    @Test
+    void queuesBeyondTheLimitAndShedsWhenTheQueueIsFull() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1, 1, Duration.ofSeconds(10), 2.0, 0.9);
+        Sinks.One<String> first = Sinks.one();
+        AtomicReference<String> secondResult = new AtomicReference<>();
+
+        limiter.limit(first.asMono(), 1).subscribe();
+        limiter.limit(Mono.just("second"), 1).subscribe(secondResult::set);
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(1, limiter.getQueued());
+
+        OverloadedException shed = assertThrows(OverloadedException.class,
+                () -> limiter.limit(Mono.just("third"), 1).block());
+        assertTrue(shed.getRetryAfter().toSeconds() >= 1);
+
+        first.tryEmitValue("first");
+        assertEquals("second", secondResult.get());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void givesUpWaitingAfterMaxWait() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1, 4, Duration.ofMillis(50), 2.0, 0.9);
+        Sinks.One<String> held = Sinks.one();
+        limiter.limit(held.asMono(), 1).subscribe();
+
+        assertThrows(OverloadedException.class, () -> limiter.limit(Mono.just("late"), 1).block());
+        assertEquals(0, limiter.getQueued());
+
+        held.tryEmitValue("done");
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void halvesTheLimitOnFailures() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 8, 0, Duration.ofSeconds(1), 2.0, 0.9);
+
+        limiter.limit(Mono.error(new IllegalStateException("down")), 1).onErrorResume(e -> Mono.empty()).block();
+        assertEquals(2, limiter.getLimit());
+        limiter.limit(Mono.error(new IllegalStateException("down")), 1).onErrorResume(e -> Mono.empty()).block();
+        limiter.limit(Mono.error(new IllegalStateException("down")), 1).onErrorResume(e -> Mono.empty()).block();
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void growsALimitThatIsFullyUsed() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 4, 0, Duration.ofSeconds(1), 1000.0, 0.9);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.limit(Mono.just(i), 1).block();
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+}
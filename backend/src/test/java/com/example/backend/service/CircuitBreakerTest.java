@@ -0,0 +1,60 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 2, Duration.ofSeconds(30), now::get);
+
+    @Test
+    void opensAfterConsecutiveFailuresAndStopsCalling() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> failing = Mono.fromCallable(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("down");
+        });
+
+        assertThrows(IllegalStateException.class, () -> breaker.protect(failing).block());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertThrows(IllegalStateException.class, () -> breaker.protect(failing).block());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        CircuitOpenException open = assertThrows(CircuitOpenException.class,
+                () -> breaker.protect(failing).block());
+        assertEquals(2, calls.get());
+        assertEquals(30, open.getRetryAfter().toSeconds());
+    }
+
+    @Test
+    void probesOnceOpenDurationHasPassed() {
+        Mono<String> failing = Mono.error(new IllegalStateException("down"));
+        breaker.protect(failing).onErrorResume(e -> Mono.empty()).block();
+        breaker.protect(failing).onErrorResume(e -> Mono.empty()).block();
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        breaker.protect(failing).onErrorResume(e -> Mono.empty()).block();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertEquals("up", breaker.protect(Mono.just("up")).block());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void ignoresShedCalls() {
+        Mono<String> shed = Mono.error(new OverloadedException("busy", Duration.ofSeconds(1)));
+        for (int i = 0; i < 5; i++) {
+            breaker.protect(shed).onErrorResume(e -> Mono.empty()).block();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
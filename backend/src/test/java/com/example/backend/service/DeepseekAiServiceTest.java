@@ -0,0 +1,125 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.ExplanationStore;
+import com.example.backend.model.AiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Coalescing of concurrent misses for one word into a single generation,
+ * against a stubbed Ollama that answers when the test says so
+ */
+class DeepseekAiServiceTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private Sinks.One<ClientResponse> upstream;
+    private DeepseekAiService service;
+
+    @BeforeEach
+    void setUp() {
+        upstream = Sinks.one();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    upstreamCalls.incrementAndGet();
+                    return upstream.asMono();
+                })
+                .build();
+        service = new DeepseekAiService(webClient, ExplanationStore.disabled(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "deepseekApiUrl", "http://ollama");
+        ReflectionTestUtils.setField(service, "deepseekApiKey", "test-model");
+        ReflectionTestUtils.setField(service, "cacheEnabled", true);
+        ReflectionTestUtils.setField(service, "cacheMaxBytes", 1024L * 1024);
+        ReflectionTestUtils.setField(service, "cacheTtlHours", 1L);
+        ReflectionTestUtils.setField(service, "packingEnabled", false);
+        ReflectionTestUtils.setField(service, "limiterEnabled", false);
+        ReflectionTestUtils.setField(service, "breakerFailureThreshold", 3);
+        ReflectionTestUtils.setField(service, "breakerOpenSeconds", 30L);
+        ReflectionTestUtils.setField(service, "negativeTtlSeconds", 60L);
+        service.initCache();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> inFlight() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(service, "inFlightRequests");
+    }
+
+    private static ClientResponse reply(String generatedText) throws Exception {
+        String body = new ObjectMapper().writeValueAsString(
+                Map.of("model", "test-model", "response", generatedText, "done", true));
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    @Test
+    void concurrentCallersShareOneGeneration() throws Exception {
+        List<CompletableFuture<AiResponse>> callers = List.of(
+                service.generateExplanation("吃", "Mandarin").toFuture(),
+                service.generateExplanation("吃", "Mandarin").toFuture(),
+                service.generateExplanation("吃", "Mandarin").toFuture());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, inFlight().size());
+
+        upstream.tryEmitValue(reply(ModelOutputCorpus.load().get("01-plain.txt")));
+
+        AiResponse first = callers.get(0).get(5, TimeUnit.SECONDS);
+        assertNotNull(first.getExplanation());
+        for (CompletableFuture<AiResponse> caller : callers) {
+            assertSame(first, caller.get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(inFlight().isEmpty());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void failedGenerationLeavesTheInFlightMap() throws Exception {
+        List<CompletableFuture<AiResponse>> callers = List.of(
+                service.generateExplanation("吃", "Mandarin").toFuture(),
+                service.generateExplanation("吃", "Mandarin").toFuture());
+
+        upstream.tryEmitError(new IllegalStateException("Connection refused"));
+
+        // Both callers get the same fallback, and the next one gets it from the negative cache
+        AiResponse fallback = callers.get(0).get(5, TimeUnit.SECONDS);
+        assertSame(fallback, callers.get(1).get(5, TimeUnit.SECONDS));
+        assertTrue(inFlight().isEmpty());
+        assertSame(fallback, service.generateExplanation("吃", "Mandarin").block());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void generationCancelledByEveryCallerLeavesTheInFlightMap() {
+        Disposable first = service.generateExplanation("吃", "Mandarin").subscribe();
+        Disposable second = service.generateExplanation("吃", "Mandarin").subscribe();
+        assertEquals(1, inFlight().size());
+
+        first.dispose();
+        assertEquals(1, inFlight().size());
+        second.dispose();
+
+        assertTrue(inFlight().isEmpty());
+        assertEquals(1, upstreamCalls.get());
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.backend.service;
+
+import com.example.backend.model.AiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The regex based response parser that {@link SectionParser} replaced, kept
+ * as the reference for compatibility tests and benchmarks.
+ */
+final class LegacyResponseParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyResponseParser.class);
+
+    private LegacyResponseParser() {
+    }
+
+    static AiResponse parse(String text) {
+        AiResponse response = new AiResponse();
+        logger.debug("Parsing generated text of length: {}", text.length());
+
+        try {
+            // Remove any <think> tags that might be in the response
+            text = text.replaceAll("(?s)<think>.*?</think>", "").trim();
+
+            // Log the raw text for debugging
+            logger.debug("Raw text after removing <think> tags (first 100 chars): {}",
+                    text.length() > 100 ? text.substring(0, 100) + "..." : text);
+
+            // First try using our section extractor
+            Map<String, String> sections = extractSections(text);
+
+            // If any critical sections are missing, try direct regex extraction as a
+            // fallback
+            if (!sections.containsKey("EXPLANATION") || !sections.containsKey("PRONUNCIATION")
+                    || !sections.containsKey("EXAMPLES")) {
+                logger.info("Some sections missing from primary extraction method, trying direct regex extraction...");
+
+                // Try direct extraction with a new approach
+                if (!sections.containsKey("EXPLANATION")) {
+                    String explanation = extractWithRegex(text, "EXPLANATION:", "PRONUNCIATION:");
+                    if (explanation != null) {
+                        sections.put("EXPLANATION", explanation);
+                        logger.debug("Extracted EXPLANATION with regex: {} chars", explanation.length());
+                    }
+                }
+
+                if (!sections.containsKey("PRONUNCIATION")) {
+                    String pronunciation = extractWithRegex(text, "PRONUNCIATION:", "EXAMPLES:");
+                    if (pronunciation != null) {
+                        sections.put("PRONUNCIATION", pronunciation);
+                        logger.debug("Extracted PRONUNCIATION with regex: {} chars", pronunciation.length());
+                    }
+                }
+
+                if (!sections.containsKey("EXAMPLES")) {
+                    String examples = extractWithRegex(text, "EXAMPLES:", "IS_ADJECTIVE:");
+                    if (examples != null) {
+                        sections.put("EXAMPLES", examples);
+                        logger.debug("Extracted EXAMPLES with regex: {} chars", examples.length());
+                    }
+                }
+
+                if (!sections.containsKey("IS_ADJECTIVE")) {
+                    String isAdj = extractWithRegex(text, "IS_ADJECTIVE:", null);
+                    if (isAdj != null) {
+                        sections.put("IS_ADJECTIVE", isAdj);
+                        logger.debug("Extracted IS_ADJECTIVE with regex: {}", isAdj);
+                    }
+                }
+            }
+
+            // Clean up and set the extracted values in the response object
+            response.setExplanation(
+                    cleanUpFormatting(sections.getOrDefault("EXPLANATION", "No explanation available.")));
+            response.setPronunciation(
+                    cleanUpFormatting(sections.getOrDefault("PRONUNCIATION", "No pronunciation available.")));
+            response.setExamples(cleanUpFormatting(sections.getOrDefault("EXAMPLES", "No examples available.")));
+
+            // Handle adjective field
+            String isAdjectiveText = sections.getOrDefault("IS_ADJECTIVE", "NO").trim().toUpperCase();
+            response.setAdjective(isAdjectiveText.contains("YES"));
+
+            logger.debug("Parsed sections - Explanation: {}, Pronunciation: {}, Examples: {}, Is Adjective: {}",
+                    response.getExplanation().substring(0, Math.min(20, response.getExplanation().length())) + "...",
+                    response.getPronunciation(),
+                    response.getExamples().substring(0, Math.min(20, response.getExamples().length())) + "...",
+                    response.isAdjective());
+        } catch (Exception e) {
+            logger.error("Error parsing AI response: {}", e.getMessage(), e);
+            response.setExplanation("Error parsing explanation: " + e.getMessage());
+            response.setExamples("Error parsing examples.");
+            response.setPronunciation("Error parsing pronunciation.");
+            response.setAdjective(false);
+        }
+
+        return response;
+    }
+
+    /**
+     * Extract text between two section headers using regex
+     * 
+     * @param text        Full text
+     * @param startHeader Starting header
+     * @param endHeader   Ending header or null if extracting to the end
+     * @return Extracted text or null if not found
+     */
+    private static String extractWithRegex(String text, String startHeader, String endHeader) {
+        try {
+            int startIdx = text.indexOf(startHeader);
+            if (startIdx == -1) {
+                logger.warn("Could not find start header: {}", startHeader);
+                return null;
+            }
+
+            startIdx += startHeader.length();
+            int endIdx;
+
+            if (endHeader != null) {
+                endIdx = text.indexOf(endHeader, startIdx);
+                if (endIdx == -1) {
+                    // If the end header is not found, extract until the end
+                    endIdx = text.length();
+                }
+            } else {
+                endIdx = text.length();
+            }
+
+            String extracted = text.substring(startIdx, endIdx).trim();
+            logger.debug("Extracted {} to {} ({}): {}",
+                    startHeader,
+                    endHeader != null ? endHeader : "END",
+                    extracted.length(),
+                    extracted.length() > 30 ? extracted.substring(0, 30) + "..." : extracted);
+
+            return extracted;
+        } catch (Exception e) {
+            logger.error("Error extracting section between {} and {}: {}",
+                    startHeader, endHeader, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Cleans up formatting artifacts from the text
+     * Removes asterisks, extra whitespace, and other unwanted formatting
+     * 
+     * @param text The text to clean
+     * @return Cleaned text
+     */
+    static String cleanUpFormatting(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+
+        // More aggressive cleaning of formatting
+
+        // Remove single and double asterisks (bold and italic in markdown)
+        text = text.replaceAll("\\*\\*", "");
+        text = text.replaceAll("\\*", "");
+
+        // Remove underscores (italic and bold in markdown)
+        text = text.replaceAll("__", "");
+        text = text.replaceAll("_", "");
+
+        // Remove tildes (strikethrough in markdown)
+        text = text.replaceAll("~~", "");
+
+        // Remove backticks (code in markdown)
+        text = text.replaceAll("`", "");
+
+        // Remove angle brackets that might be used for HTML-like formatting
+        text = text.replaceAll("<[^>]*>", "");
+
+        // Normalize multiple newlines to a single newline
+        text = text.replaceAll("\n{3,}", "\n\n");
+
+        // Remove extra whitespace at the start and end
+        text = text.trim();
+
+        // Log the cleaned text for debugging
+        logger.debug("Cleaned text from {} chars to {} chars", text.length() + 1, text.length());
+
+        return text;
+    }
+
+    private static Map<String, String> extractSections(String text) {
+        Map<String, String> sections = new HashMap<>();
+        String[] sectionHeaders = { "EXPLANATION:", "PRONUNCIATION:", "EXAMPLES:", "IS_ADJECTIVE:" };
+
+        // First, normalize line endings and remove any <think> blocks
+        text = text.replaceAll("(?s)<think>.*?</think>", "").trim();
+
+        // Normalize line endings
+        text = text.replaceAll("\r\n", "\n");
+
+        // Find the start positions of each section
+        Map<String, Integer> sectionPositions = new HashMap<>();
+        for (String header : sectionHeaders) {
+            int pos = text.indexOf(header);
+            if (pos >= 0) {
+                sectionPositions.put(header, pos);
+                logger.debug("Found section '{}' at position {}", header, pos);
+            } else {
+                logger.warn("Section '{}' not found in response", header);
+            }
+        }
+
+        // Sort the sections by their position in the text
+        List<String> orderedHeaders = sectionPositions.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        logger.debug("Ordered section headers: {}", orderedHeaders);
+
+        // Extract each section's content
+        for (int i = 0; i < orderedHeaders.size(); i++) {
+            String currentHeader = orderedHeaders.get(i);
+            int currentStart = sectionPositions.get(currentHeader) + currentHeader.length();
+            String content = "";
+
+            // If this is the last section, extract until the end of text
+            if (i == orderedHeaders.size() - 1) {
+                content = text.substring(currentStart).trim();
+                logger.debug("Extracted '{}' section (last): {} characters",
+                        currentHeader.replace(":", ""), content.length());
+            } else {
+                // Otherwise extract until the start of the next section
+                String nextHeader = orderedHeaders.get(i + 1);
+                int nextStart = sectionPositions.get(nextHeader);
+                content = text.substring(currentStart, nextStart).trim();
+                logger.debug("Extracted '{}' section: {} characters",
+                        currentHeader.replace(":", ""), content.length());
+            }
+
+            // Pre-clean the content before storing it
+            content = cleanUpFormatting(content);
+            sections.put(currentHeader.replace(":", ""), content);
+
+            // Log the cleaned content
+            logger.debug("Cleaned '{}' section content: {}",
+                    currentHeader.replace(":", ""),
+                    content.substring(0, Math.min(30, content.length())) + (content.length() > 30 ? "..." : ""));
+        }
+
+        return sections;
+    }
+}
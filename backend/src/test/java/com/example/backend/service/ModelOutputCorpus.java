@@ -0,0 +1,43 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recorded model outputs used by the parser tests and benchmarks
+ */
+final class ModelOutputCorpus {
+
+    static final List<String> FILES = List.of(
+            "01-plain.txt",
+            "02-think-block.txt",
+            "03-markdown.txt",
+            "04-crlf-reordered.txt",
+            "05-missing-sections.txt",
+            "06-unclosed-think.txt",
+            "07-duplicate-headers.txt",
+            "08-gpt-oss-verbose.txt");
+
+    private ModelOutputCorpus() {
+    }
+
+    static Map<String, String> load() {
+        Map<String, String> outputs = new LinkedHashMap<>();
+        for (String file : FILES) {
+            try (InputStream in = ModelOutputCorpus.class.getResourceAsStream("/model-outputs/" + file)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing corpus file " + file);
+                }
+                outputs.put(file, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return outputs;
+    }
+}
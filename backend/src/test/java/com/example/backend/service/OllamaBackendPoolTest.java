@@ -0,0 +1,89 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OllamaBackendPoolTest {
+
+    private static List<OllamaBackendPool.Backend> backends(String... definitions) {
+        return OllamaBackendPool.parse(List.of(definitions), "http://default",
+                url -> new CircuitBreaker(url, 1, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void fallsBackToTheDefaultUrl() {
+        OllamaBackendPool pool = new OllamaBackendPool(backends(), false, 0.95, 1, Duration.ZERO);
+        assertEquals("http://default", pool.execute("any", 1, Mono::just).block());
+    }
+
+    @Test
+    void routesToTheLeastLoadedBackendHostingTheModel() {
+        OllamaBackendPool pool = new OllamaBackendPool(
+                backends("http://a|small|large", "http://b|large", "http://c|small"), false, 0.95, 1, Duration.ZERO);
+        List<String> routed = new ArrayList<>();
+        Sinks.One<String> held = Sinks.one();
+
+        pool.execute("large", 1, url -> {
+            routed.add(url);
+            return held.asMono();
+        }).subscribe();
+        pool.execute("large", 1, url -> {
+            routed.add(url);
+            return Mono.just(url);
+        }).block();
+        pool.execute("small", 1, url -> {
+            routed.add(url);
+            return Mono.just(url);
+        }).block();
+
+        assertEquals(List.of("http://a", "http://b", "http://c"), routed);
+    }
+
+    @Test
+    void skipsBackendsWhoseBreakerIsOpen() {
+        OllamaBackendPool pool = new OllamaBackendPool(backends("http://a", "http://b"), false, 0.95, 1,
+                Duration.ZERO);
+        pool.execute("m", 1, url -> Mono.error(new IllegalStateException(url + " down")))
+                .onErrorResume(e -> Mono.empty()).block();
+
+        assertEquals("http://b", pool.execute("m", 1, Mono::just).block());
+        pool.execute("m", 1, url -> Mono.error(new IllegalStateException(url + " down")))
+                .onErrorResume(e -> Mono.empty()).block();
+        assertThrows(CircuitOpenException.class, () -> pool.checkAvailable("m").block());
+    }
+
+    @Test
+    void hedgesSlowCallsOnASecondBackend() {
+        OllamaBackendPool pool = new OllamaBackendPool(backends("http://a", "http://b"), true, 0.5, 1,
+                Duration.ofMillis(20));
+        pool.execute("m", 1, url -> Mono.just(url)).block();
+
+        String winner = pool.execute("m", 1,
+                url -> url.equals("http://a") ? Mono.<String>never() : Mono.just(url)).block(Duration.ofSeconds(5));
+        assertEquals("http://b", winner);
+        assertEquals(1L, pool.describeHedging().get("hedgesWon"));
+    }
+
+    @Test
+    void skipsHedgesWhileTheLimiterIsSaturated() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1, 8, Duration.ofSeconds(5), 1000, 0.9);
+        OllamaBackendPool pool = new OllamaBackendPool(backends("http://a", "http://b"), true, 0.5, 1,
+                Duration.ofMillis(20), limiter);
+        pool.execute("m", 1, url -> Mono.just(url)).block();
+
+        // The primary holds the only slot, so the slow call is left to finish on its own
+        String winner = limiter.limit(pool.execute("m", 1,
+                url -> Mono.delay(Duration.ofMillis(200)).thenReturn(url)), 1).block(Duration.ofSeconds(5));
+        assertEquals("http://a", winner);
+        assertEquals(0L, pool.describeHedging().get("hedges"));
+        assertEquals(1L, pool.describeHedging().get("hedgesSkipped"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.backend.service;
+
+import com.example.backend.model.AiResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SectionParserTest {
+
+    @Test
+    void matchesLegacyParserOnRecordedOutputs() {
+        for (Map.Entry<String, String> output : ModelOutputCorpus.load().entrySet()) {
+            AiResponse expected = LegacyResponseParser.parse(output.getValue());
+            assertSameResponse(output.getKey(), expected, SectionParser.parse(output.getValue()));
+        }
+    }
+
+    @Test
+    void chunkedInputGivesSameResultAsCompleteInput() {
+        for (Map.Entry<String, String> output : ModelOutputCorpus.load().entrySet()) {
+            AiResponse expected = SectionParser.parse(output.getValue());
+            for (int chunkSize : new int[] { 1, 3, 7, 64 }) {
+                SectionParser parser = new SectionParser();
+                String text = output.getValue();
+                for (int i = 0; i < text.length(); i += chunkSize) {
+                    parser.feed(text.substring(i, Math.min(text.length(), i + chunkSize)));
+                }
+                parser.finish();
+                assertSameResponse(output.getKey() + " in chunks of " + chunkSize, expected, parser.toResponse());
+            }
+        }
+    }
+
+    @Test
+    void reportsSectionsAsSoonAsTheNextHeaderArrives() {
+        List<String> reported = new ArrayList<>();
+        SectionParser parser = new SectionParser((section, content) -> reported.add(section + "=" + content));
+
+        parser.feed("<think>EXPLANATION: ignored</think>PRONUNCIATION:\nměi");
+        parser.feed(" lì\n\nEXPLA");
+        assertEquals(List.of(), reported);
+
+        parser.feed("NATION:\nCantik.\n\nEXAMPLES:");
+        assertEquals(List.of("PRONUNCIATION=měi lì", "EXPLANATION=Cantik."), reported);
+
+        parser.feed("\n1. 她很美丽。");
+        parser.finish();
+        assertEquals("EXAMPLES=1. 她很美丽。", reported.get(2));
+    }
+
+    @Test
+    void splitsPackedResponsesByEntryNumber() {
+        String text = "<think>=== WORD 2: fake ===\nEXPLANATION: no</think>"
+                + "=== WORD 2: tidur ===\r\nPRONUNCIATION:\nshuì jiào\nEXPLANATION:\n**Tidur** bermaksud rehat.\n"
+                + "EXAMPLES:\n1. 我要睡觉。\nIS_ADJECTIVE:\nNO\n\n"
+                + "=== WORD 1: cantik ===\nPRONUNCIATION:\nměi lì\nEXPLANATION:\nCantik bermaksud indah.\n"
+                + "EXAMPLES:\n1. 她很美丽。\nIS_ADJECTIVE:\nYES\n"
+                + "=== WORD 3: makan ===\nPRONUNCIATION:\nchī\n"
+                + "=== END ===\nEXPLANATION: trailing";
+
+        List<AiResponse> responses = SectionParser.parsePacked(text, 3);
+
+        assertEquals(3, responses.size());
+        assertEquals("Cantik bermaksud indah.", responses.get(0).getExplanation());
+        assertTrue(responses.get(0).isAdjective());
+        assertEquals("shuì jiào", responses.get(1).getPronunciation());
+        assertEquals("Tidur bermaksud rehat.", responses.get(1).getExplanation());
+        assertEquals("1. 我要睡觉。", responses.get(1).getExamples());
+        assertFalse(responses.get(1).isAdjective());
+        assertNull(responses.get(2));
+    }
+
+    @Test
+    void cleanMatchesLegacyCleanup() {
+        String[] samples = {
+                "**bold** and *italic* with __under__ and _single_",
+                "~~struck~~ ~single~ tilde~~~",
+                "<b>tag</b> < not a tag",
+                "a\n\n\n\n\nb\n\n\nc",
+                "  `code`  \n",
+                "~<i>~ and ~`~",
+        };
+        for (String sample : samples) {
+            String legacy = LegacyResponseParser.cleanUpFormatting(LegacyResponseParser.cleanUpFormatting(sample));
+            assertEquals(legacy, SectionParser.clean(sample), sample);
+        }
+    }
+
+    private static void assertSameResponse(String name, AiResponse expected, AiResponse actual) {
+        assertEquals(expected.getExplanation(), actual.getExplanation(), name + " explanation");
+        assertEquals(expected.getPronunciation(), actual.getPronunciation(), name + " pronunciation");
+        assertEquals(expected.getExamples(), actual.getExamples(), name + " examples");
+        assertEquals(expected.isAdjective(), actual.isAdjective(), name + " adjective");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.backend.service;
+
+import com.example.backend.lexicon.Lexicon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Lookups counted off the index and folded into it in batches
+ */
+class SuggestionServiceTest {
+
+    private SuggestionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SuggestionService(Lexicon.empty());
+        ReflectionTestUtils.setField(service, "maxLimit", 20);
+    }
+
+    @Test
+    void lookupsBecomeSuggestibleAtTheNextFold() {
+        service.recordLookup("makan");
+        service.recordLookup("malam");
+        service.recordLookup("malam");
+        assertEquals(List.of(), service.suggest("ma", 10));
+
+        service.foldLookups();
+        assertEquals(List.of("malam", "makan"), service.suggest("ma", 10));
+
+        service.recordLookup("makan");
+        service.recordLookup("makan");
+        service.foldLookups();
+        assertEquals(List.of("makan", "malam"), service.suggest("ma", 10));
+    }
+
+    @Test
+    void forgottenWordsLoseTheirPendingLookups() {
+        service.recordLookup("makan");
+        service.foldLookups();
+        service.recordLookup("makan");
+
+        service.forgetLookup("makan");
+        service.foldLookups();
+        assertEquals(List.of(), service.suggest("ma", 10));
+    }
+}